@@ -36,6 +36,11 @@ public enum Alliance {
         public boolean isPawnPromotionSquare(int position) {
             return BoardUtils.EIGHTH_RANK[position];
         }
+
+        @Override
+        public Alliance getOpposite() {
+            return BLACK;
+        }
     },
     BLACK{
         @Override
@@ -66,6 +71,11 @@ public enum Alliance {
         public boolean isPawnPromotionSquare(int position) {
             return BoardUtils.FIRST_RANK[position];
         }
+
+        @Override
+        public Alliance getOpposite() {
+            return WHITE;
+        }
     };
 
     /*Each alliance has a different direction and promotion rank */
@@ -80,4 +90,6 @@ public enum Alliance {
 
     public abstract int getOppositeDirection();
 
+    public abstract Alliance getOpposite();
+
 }
@@ -0,0 +1,180 @@
+package com.chess.engine.board;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/*
+ * The bitboard stores the position as 64 bit masks, one bit per tile (bit 0 is a8, bit 63 is h1)
+ * There is one mask per piece type and alliance, plus an occupancy mask per alliance and one for the whole board
+ * Move generation, attack queries and evaluation can work on these masks instead of walking the tiles
+ */
+
+public class BitBoard {
+
+    public static final int NUM_PIECE_TYPES = PieceType.values().length;
+
+    private final long[] pieceBitBoards;
+    private final long[] allianceBitBoards;
+    private long occupied;
+
+    BitBoard(){
+        this.pieceBitBoards = new long[2 * NUM_PIECE_TYPES];
+        this.allianceBitBoards = new long[2];
+        this.occupied = 0L;
+    }
+
+    BitBoard(final Collection<Piece> whitePieces, final Collection<Piece> blackPieces){
+        this();
+        for (final Piece piece : whitePieces){
+            addPiece(piece.getPieceAlliance(), piece.getPieceType(), piece.getPiecePosition());
+        }
+        for (final Piece piece : blackPieces){
+            addPiece(piece.getPieceAlliance(), piece.getPieceType(), piece.getPiecePosition());
+        }
+    }
+
+    void clear(){
+        Arrays.fill(this.pieceBitBoards, 0L);
+        Arrays.fill(this.allianceBitBoards, 0L);
+        this.occupied = 0L;
+    }
+
+    // index of the mask for a piece type of an alliance
+    public static int pieceIndex(final Alliance alliance, final PieceType pieceType){
+        return alliance.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal();
+    }
+
+    public static long squareMask(final int square){
+        return 1L << square;
+    }
+
+    public static int popCount(final long bitBoard){
+        return Long.bitCount(bitBoard);
+    }
+
+    // the lowest set square of the mask, callers clear it with bitBoard &= bitBoard - 1 when iterating
+    public static int firstSquare(final long bitBoard){
+        return Long.numberOfTrailingZeros(bitBoard);
+    }
+
+    public long getPieces(final Alliance alliance, final PieceType pieceType){
+        return this.pieceBitBoards[pieceIndex(alliance, pieceType)];
+    }
+
+    public long getAlliancePieces(final Alliance alliance){
+        return this.allianceBitBoards[alliance.ordinal()];
+    }
+
+    public long getOccupied(){
+        return this.occupied;
+    }
+
+    public long getEmpty(){
+        return ~this.occupied;
+    }
+
+    public boolean isOccupied(final int square){
+        return (this.occupied & squareMask(square)) != 0;
+    }
+
+    public int getPieceCount(final Alliance alliance, final PieceType pieceType){
+        return popCount(getPieces(alliance, pieceType));
+    }
+
+    /* A square is attacked if a piece of the attacking alliance could capture on it
+     * This is answered backwards: put each piece type on the square and look for an attacker of that type on its targets
+     * (pawns use the defending alliance's capture table since pawn captures are not symmetric)
+     */
+    public boolean isSquareAttacked(final int square, final Alliance attackerAlliance){
+        if ((LeaperAttacks.pawnAttacks(attackerAlliance.getOpposite(), square) & getPieces(attackerAlliance, PieceType.PAWN)) != 0 ||
+            (LeaperAttacks.knightAttacks(square) & getPieces(attackerAlliance, PieceType.KNIGHT)) != 0 ||
+            (LeaperAttacks.kingAttacks(square) & getPieces(attackerAlliance, PieceType.KING)) != 0){
+            return true;
+        }
+        final long queens = getPieces(attackerAlliance, PieceType.QUEEN);
+        return (SlidingAttacks.bishopAttacks(square, this.occupied) & (getPieces(attackerAlliance, PieceType.BISHOP) | queens)) != 0 ||
+               (SlidingAttacks.rookAttacks(square, this.occupied) & (getPieces(attackerAlliance, PieceType.ROOK) | queens)) != 0;
+    }
+
+    // every piece of the attacking alliance that attacks the square, with the sliders seeing through the given occupancy
+    public long getAttackers(final int square, final Alliance attackerAlliance, final long occupied){
+        final long queens = getPieces(attackerAlliance, PieceType.QUEEN);
+        return (LeaperAttacks.pawnAttacks(attackerAlliance.getOpposite(), square) & getPieces(attackerAlliance, PieceType.PAWN)) |
+               (LeaperAttacks.knightAttacks(square) & getPieces(attackerAlliance, PieceType.KNIGHT)) |
+               (LeaperAttacks.kingAttacks(square) & getPieces(attackerAlliance, PieceType.KING)) |
+               (SlidingAttacks.bishopAttacks(square, occupied) & (getPieces(attackerAlliance, PieceType.BISHOP) | queens)) |
+               (SlidingAttacks.rookAttacks(square, occupied) & (getPieces(attackerAlliance, PieceType.ROOK) | queens));
+    }
+
+    // the opponent's pieces giving check to the king of the alliance
+    public long getCheckers(final Alliance alliance){
+        return getAttackers(firstSquare(getPieces(alliance, PieceType.KING)), alliance.getOpposite(), this.occupied);
+    }
+
+    /* Pieces of the alliance that are the only thing standing between their king and an enemy slider
+     * the sliders are found by looking out from the king on an empty board, then each ray is checked for exactly one blocker
+     */
+    public long getPinnedPieces(final Alliance alliance){
+        final int kingSquare = firstSquare(getPieces(alliance, PieceType.KING));
+        final Alliance opponent = alliance.getOpposite();
+        final long queens = getPieces(opponent, PieceType.QUEEN);
+        long snipers = (SlidingAttacks.rookAttacks(kingSquare, 0L) & (getPieces(opponent, PieceType.ROOK) | queens)) |
+                       (SlidingAttacks.bishopAttacks(kingSquare, 0L) & (getPieces(opponent, PieceType.BISHOP) | queens));
+        long pinned = 0L;
+        while (snipers != 0){
+            final long blockers = SlidingAttacks.between(kingSquare, firstSquare(snipers)) & this.occupied;
+            snipers &= snipers - 1;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0){
+                pinned |= blockers & getAlliancePieces(alliance);
+            }
+        }
+        return pinned;
+    }
+
+    // the mask updates below are only used while a board is being filled in, or by the mutable search board
+    void addPiece(final Alliance alliance, final PieceType pieceType, final int square){
+        final long mask = squareMask(square);
+        this.pieceBitBoards[pieceIndex(alliance, pieceType)] |= mask;
+        this.allianceBitBoards[alliance.ordinal()] |= mask;
+        this.occupied |= mask;
+    }
+
+    void removePiece(final Alliance alliance, final PieceType pieceType, final int square){
+        final long mask = ~squareMask(square);
+        this.pieceBitBoards[pieceIndex(alliance, pieceType)] &= mask;
+        this.allianceBitBoards[alliance.ordinal()] &= mask;
+        this.occupied &= mask;
+    }
+
+    @Override
+    public boolean equals(Object other){
+        if (this == other){
+            return true;
+        }
+        if (!(other instanceof BitBoard)){
+            return false;
+        }
+        return Arrays.equals(this.pieceBitBoards, ((BitBoard) other).pieceBitBoards);
+    }
+
+    @Override
+    public int hashCode(){
+        return Arrays.hashCode(this.pieceBitBoards);
+    }
+
+    @Override
+    public String toString(){
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++){
+            builder.append(isOccupied(i) ? " 1" : " .");
+            if ((i + 1) % 8 == 0){
+                builder.append("\n");
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -3,56 +3,100 @@ package com.chess.engine.board;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.pieces.*;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.chess.engine.player.BlackPlayer;
 import com.chess.engine.player.Player;
 import com.chess.engine.player.WhitePlayer;
 
 /*
- * The board is a list of tiles
+ * The board is an array of 64 pieces (null for an empty tile), tiles are handed out from the tile cache
  * A board contains two players, also needs to store the current player
  * Board stores the whitePieces and blackPieces
  * The board also stores if there is an enpassantpawn on the board
+ * The same position is also kept as bitboards so it can be queried with 64 bit masks
+ * Every board carries a zobrist hash of its position, two boards are equal when they hold the same position
  */
 
 public class Board {
 
-    private final List<Tile> gameBoard;
+    private final Piece[] gameBoard;
     private final Collection<Piece> whitePieces;
     private final Collection<Piece> blackPieces;
+    private final BitBoard bitBoard;
 
     private final WhitePlayer whitePlayer;
     private final BlackPlayer blackPlayer;
     private final Player currentPlayer;
     private final Pawn enPassantPawn;
+    private final int castlingRights;
+    // the zobrist keys of the pieces only, a builder copying this board starts from it
+    private final long pieceHash;
+    private final long zobristHash;
+
+    /* The standard moves of each side are only calculated the first time someone asks for them
+     * most boards made during a search are never expanded, so there is no point generating moves for them up front
+     * (the lists are immutable, so two threads racing to fill them in just build the same list twice)
+     */
+    private Collection<Move> whiteStandardLegalMoves;
+    private Collection<Move> blackStandardLegalMoves;
 
     // The builder calls this constructor and initializes the board
     private Board(Builder builder){
-        this.gameBoard = createGameBoard(builder);
-        this.whitePieces = calculateActivePieces(this.gameBoard, Alliance.WHITE);
-        this.blackPieces = calculateActivePieces(this.gameBoard, Alliance.BLACK);        
+        // the board takes over the builder's array, a builder only builds one board
+        this.gameBoard = builder.boardConfig;
+        // one pass over the squares fills in the piece lists and the bitboards
+        final List<Piece> whitePieces = new ArrayList<>(16);
+        final List<Piece> blackPieces = new ArrayList<>(16);
+        this.bitBoard = new BitBoard();
+        for (final Piece piece : this.gameBoard){
+            if (piece != null){
+                (piece.getPieceAlliance().isWhite() ? whitePieces : blackPieces).add(piece);
+                this.bitBoard.addPiece(piece.getPieceAlliance(), piece.getPieceType(), piece.getPiecePosition());
+            }
+        }
+        this.whitePieces = Collections.unmodifiableList(whitePieces);
+        this.blackPieces = Collections.unmodifiableList(blackPieces);
         this.enPassantPawn = builder.enPassantPawn;
-        final Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
-        final Collection<Move> blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
-        
-        this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-        this.blackPlayer = new BlackPlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
+        this.castlingRights = SearchBoard.calculateCastlingRights(this);
+        // the builder has already hashed the pieces as they were set
+        this.pieceHash = builder.pieceHash;
+        this.zobristHash = this.pieceHash ^ Zobrist.sideToMoveKey(builder.nextMoveMaker) ^
+                           Zobrist.castlingKey(this.castlingRights) ^ Zobrist.enPassantKey(getEnPassantSquare());
+
+        this.whitePlayer = new WhitePlayer(this);
+        this.blackPlayer = new BlackPlayer(this);
         this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
     }
 
     public Tile getTile(final int tileCoordinate){
-        return gameBoard.get(tileCoordinate);
+        return Tile.createTile(tileCoordinate, this.gameBoard[tileCoordinate]);
     }
 
     public Pawn getEnPassantPawn(){
         return this.enPassantPawn;
     }
 
+    // the square the enpassant pawn jumped over, or SearchBoard.NO_SQUARE
+    public int getEnPassantSquare(){
+        if (this.enPassantPawn == null){
+            return SearchBoard.NO_SQUARE;
+        }
+        return this.enPassantPawn.getPiecePosition() + 8 * this.enPassantPawn.getPieceAlliance().getOppositeDirection();
+    }
+
+    // the castling rights as SearchBoard castling bits
+    public int getCastlingRights(){
+        return this.castlingRights;
+    }
+
+    public long getZobristHash(){
+        return this.zobristHash;
+    }
+
     public Collection<Piece> getBlackPieces(){
         return this.blackPieces;
     }
@@ -61,15 +105,22 @@ public class Board {
         return this.whitePieces;
     }
 
-    private static List<Tile> createGameBoard(Builder builder){
-        List<Tile> tiles = new ArrayList<>();
-
-        for (int i = 0; i < BoardUtils.NUM_TILES; i++){
-            // if piece is null, createTile makes an empty tile
-            tiles.add(Tile.createTile(i, builder.boardConfig.getOrDefault(i, null)));
+    // the moves of every piece of the alliance, without castles and without checking if they leave the king in check
+    public Collection<Move> getStandardLegalMoves(final Alliance alliance){
+        if (alliance.isWhite()){
+            if (this.whiteStandardLegalMoves == null){
+                this.whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
+            }
+            return this.whiteStandardLegalMoves;
+        }
+        if (this.blackStandardLegalMoves == null){
+            this.blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
         }
+        return this.blackStandardLegalMoves;
+    }
 
-        return Collections.unmodifiableList(tiles);
+    public BitBoard getBitBoard(){
+        return this.bitBoard;
     }
 
     public Player whitePlayer(){
@@ -87,61 +138,46 @@ public class Board {
     public static Board createStandardBoard(){
         final Builder builder = new Builder();
         // Black Layout
-        builder.setPiece(new Rook(0, Alliance.BLACK));
-        builder.setPiece(new Knight(1, Alliance.BLACK));
-        builder.setPiece(new Bishop(2, Alliance.BLACK));
-        builder.setPiece(new Queen(3, Alliance.BLACK));
-        builder.setPiece(new King(4, Alliance.BLACK, true, true));
-        builder.setPiece(new Bishop(5, Alliance.BLACK));
-        builder.setPiece(new Knight(6, Alliance.BLACK));
-        builder.setPiece(new Rook(7, Alliance.BLACK));
-        builder.setPiece(new Pawn(8, Alliance.BLACK));
-        builder.setPiece(new Pawn(9, Alliance.BLACK));
-        builder.setPiece(new Pawn(10, Alliance.BLACK));
-        builder.setPiece(new Pawn(11, Alliance.BLACK));
-        builder.setPiece(new Pawn(12, Alliance.BLACK));
-        builder.setPiece(new Pawn(13, Alliance.BLACK));
-        builder.setPiece(new Pawn(14, Alliance.BLACK));
-        builder.setPiece(new Pawn(15, Alliance.BLACK));
+        builder.setPiece(PieceUtils.getRook(Alliance.BLACK, 0, true));
+        builder.setPiece(PieceUtils.getKnight(Alliance.BLACK, 1, true));
+        builder.setPiece(PieceUtils.getBishop(Alliance.BLACK, 2, true));
+        builder.setPiece(PieceUtils.getQueen(Alliance.BLACK, 3, true));
+        builder.setPiece(PieceUtils.getKing(Alliance.BLACK, 4, true, false, true, true));
+        builder.setPiece(PieceUtils.getBishop(Alliance.BLACK, 5, true));
+        builder.setPiece(PieceUtils.getKnight(Alliance.BLACK, 6, true));
+        builder.setPiece(PieceUtils.getRook(Alliance.BLACK, 7, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 8, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 9, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 10, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 11, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 12, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 13, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 14, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.BLACK, 15, true));
 
         //White Layout
-        builder.setPiece(new Rook(63, Alliance.WHITE));
-        builder.setPiece(new Knight(62, Alliance.WHITE));
-        builder.setPiece(new Bishop(61, Alliance.WHITE));
-        builder.setPiece(new Queen(59, Alliance.WHITE));
-        builder.setPiece(new King(60, Alliance.WHITE, true, true));
-        builder.setPiece(new Bishop(58, Alliance.WHITE));
-        builder.setPiece(new Knight(57, Alliance.WHITE));
-        builder.setPiece(new Rook(56, Alliance.WHITE));
-        builder.setPiece(new Pawn(55, Alliance.WHITE));
-        builder.setPiece(new Pawn(54, Alliance.WHITE));
-        builder.setPiece(new Pawn(53, Alliance.WHITE));
-        builder.setPiece(new Pawn(52, Alliance.WHITE));
-        builder.setPiece(new Pawn(51, Alliance.WHITE));
-        builder.setPiece(new Pawn(50, Alliance.WHITE));
-        builder.setPiece(new Pawn(49, Alliance.WHITE));
-        builder.setPiece(new Pawn(48, Alliance.WHITE));
+        builder.setPiece(PieceUtils.getRook(Alliance.WHITE, 63, true));
+        builder.setPiece(PieceUtils.getKnight(Alliance.WHITE, 62, true));
+        builder.setPiece(PieceUtils.getBishop(Alliance.WHITE, 61, true));
+        builder.setPiece(PieceUtils.getQueen(Alliance.WHITE, 59, true));
+        builder.setPiece(PieceUtils.getKing(Alliance.WHITE, 60, true, false, true, true));
+        builder.setPiece(PieceUtils.getBishop(Alliance.WHITE, 58, true));
+        builder.setPiece(PieceUtils.getKnight(Alliance.WHITE, 57, true));
+        builder.setPiece(PieceUtils.getRook(Alliance.WHITE, 56, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 55, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 54, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 53, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 52, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 51, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 50, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 49, true));
+        builder.setPiece(PieceUtils.getPawn(Alliance.WHITE, 48, true));
 
         builder.setMoveMaker(Alliance.WHITE);
         
         return builder.build();
     }
 
-    private static Collection<Piece> calculateActivePieces(final List<Tile> gameBoard, final Alliance alliance){
-        List<Piece> activePieces = new ArrayList<>();
-
-        for (final Tile tile: gameBoard){
-            if (tile.isTileOccupied()){
-                final Piece piece = tile.getPiece();
-                if (piece.getPieceAlliance() == alliance){
-                    activePieces.add(piece);
-                }
-            }
-        }
-
-        return Collections.unmodifiableList(activePieces);
-    }
-
     private Collection<Move> calculateLegalMoves(final Collection<Piece> pieces){
         List<Move> legalMoves = new ArrayList<>();
 
@@ -152,11 +188,34 @@ public class Board {
         return Collections.unmodifiableList(legalMoves);
     }
 
+    // same pieces on the same squares, same side to move, castling rights and enpassant square
+    @Override
+    public boolean equals(Object other){
+        if (this == other){
+            return true;
+        }
+        if (!(other instanceof Board)){
+            return false;
+        }
+
+        final Board otherBoard = (Board) other;
+        return this.zobristHash == otherBoard.zobristHash &&
+               this.currentPlayer.getAlliance() == otherBoard.currentPlayer.getAlliance() &&
+               this.castlingRights == otherBoard.castlingRights &&
+               getEnPassantSquare() == otherBoard.getEnPassantSquare() &&
+               this.bitBoard.equals(otherBoard.bitBoard);
+    }
+
+    @Override
+    public int hashCode(){
+        return Long.hashCode(this.zobristHash);
+    }
+
     @Override
     public String toString(){
         final StringBuilder builder = new StringBuilder();
         for (int i = 0; i < BoardUtils.NUM_TILES; i++){
-            final String tileText = this.gameBoard.get(i).toString();
+            final String tileText = getTile(i).toString();
             builder.append(String.format("%3s", tileText));
             if ((i + 1) % 8 == 0){
                 builder.append("\n");
@@ -168,19 +227,47 @@ public class Board {
     // using the Builder design pattern
 
     public static class Builder {
-        // store the board as a hashmap with the position of the piece as the key
-        Map<Integer, Piece> boardConfig;
+        // store the board as an array indexed by the position of the piece, null for an empty tile
+        final Piece[] boardConfig;
         Pawn enPassantPawn;
+        // zobrist keys of the pieces that have been set, kept up to date as pieces are set so the board never rehashes its tiles
+        long pieceHash;
 
         // keep track of whose turn it is
         Alliance nextMoveMaker; 
 
         public Builder(){
-            this.boardConfig = new HashMap<>();
+            this.boardConfig = new Piece[BoardUtils.NUM_TILES];
+        }
+
+        // start from the pieces of another board, moves then only change the squares they touch
+        public Builder(final Board board){
+            this.boardConfig = board.gameBoard.clone();
+            this.pieceHash = board.pieceHash;
         }
 
+        // a piece on the same tile is replaced (captured)
         public Builder setPiece(final Piece piece){
-            this.boardConfig.put(piece.getPiecePosition(), piece);
+            final int position = piece.getPiecePosition();
+            final Piece replacedPiece = this.boardConfig[position];
+            if (replacedPiece != null){
+                this.pieceHash ^= Zobrist.pieceKey(replacedPiece);
+            }
+            this.boardConfig[position] = piece;
+            this.pieceHash ^= Zobrist.pieceKey(piece);
+            return this;
+        }
+
+        public Piece getPiece(final int position){
+            return this.boardConfig[position];
+        }
+
+        public Builder removePiece(final int position){
+            final Piece removedPiece = this.boardConfig[position];
+            if (removedPiece != null){
+                this.pieceHash ^= Zobrist.pieceKey(removedPiece);
+                this.boardConfig[position] = null;
+            }
             return this;
         }
 
@@ -198,6 +285,19 @@ public class Board {
         }
     }
 
+    /* The legal move (pseudo legal, like Player.getLegalMoves) from one square to another, or Move.NULL_MOVE
+     * The piece on the from square decides whose moves are searched, so this finds the moves of either side
+     * and only looks at the moves starting on that square (see Player.getMove)
+     */
+    public Move getMove(final int currentCoordinate, final int destinationCoordinate, final PieceType promotionType){
+        final Piece piece = this.gameBoard[currentCoordinate];
+        if (piece == null){
+            return Move.NULL_MOVE;
+        }
+        final Player player = piece.getPieceAlliance().isWhite() ? this.whitePlayer : this.blackPlayer;
+        return player.getMove(currentCoordinate, destinationCoordinate, promotionType);
+    }
+
     public Iterable<Move> getAllLegalMoves() {
 
         List<Move> allLegalMoves = new ArrayList<>();
@@ -216,6 +316,6 @@ public class Board {
     }
 
     public Piece getPiece(int i) {
-        return this.gameBoard.get(i).getPiece();
+        return this.gameBoard[i];
     }
 }
@@ -0,0 +1,120 @@
+package com.chess.engine.board;
+
+import com.chess.engine.board.Move.KingSideCastleMove;
+import com.chess.engine.board.Move.PawnEnPassantAttackMove;
+import com.chess.engine.board.Move.PawnJump;
+import com.chess.engine.board.Move.PawnPromotion;
+import com.chess.engine.board.Move.QueenSideCastleMove;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/*
+ * A move packed into a single int, so the search can store and compare moves without allocating Move objects
+ *  bits 0-5   current coordinate
+ *  bits 6-11  destination coordinate
+ *  bits 12-14 moved piece type
+ *  bits 15-17 captured piece type + 1 (0 when nothing is captured)
+ *  bits 18-20 promotion piece type + 1 (0 when the move is not a promotion)
+ *  bits 21-23 flags: pawn jump, enpassant, castle
+ * Piece types are stored as PieceType ordinals, the alliance is always the side to move
+ */
+
+public final class IntMove {
+
+    public static final int NO_MOVE = 0;
+    public static final int NO_PIECE_TYPE = -1;
+
+    public static final int PAWN_JUMP_FLAG = 1 << 21;
+    public static final int EN_PASSANT_FLAG = 1 << 22;
+    public static final int CASTLE_FLAG = 1 << 23;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private IntMove(){
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    public static int create(final int from, final int to, final int movedType, final int capturedType,
+                             final int promotionType, final int flags){
+        return from | (to << 6) | (movedType << 12) | ((capturedType + 1) << 15) | ((promotionType + 1) << 18) | flags;
+    }
+
+    public static int getFrom(final int move){
+        return move & 0x3F;
+    }
+
+    public static int getTo(final int move){
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int getMovedType(final int move){
+        return (move >>> 12) & 0x7;
+    }
+
+    // NO_PIECE_TYPE if the move is not a capture
+    public static int getCapturedType(final int move){
+        return ((move >>> 15) & 0x7) - 1;
+    }
+
+    // NO_PIECE_TYPE if the move is not a promotion
+    public static int getPromotionType(final int move){
+        return ((move >>> 18) & 0x7) - 1;
+    }
+
+    public static boolean isCapture(final int move){
+        return (move & (0x7 << 15)) != 0;
+    }
+
+    public static boolean isPromotion(final int move){
+        return (move & (0x7 << 18)) != 0;
+    }
+
+    public static boolean isPawnJump(final int move){
+        return (move & PAWN_JUMP_FLAG) != 0;
+    }
+
+    public static boolean isEnPassant(final int move){
+        return (move & EN_PASSANT_FLAG) != 0;
+    }
+
+    public static boolean isCastle(final int move){
+        return (move & CASTLE_FLAG) != 0;
+    }
+
+    public static PieceType toPieceType(final int pieceType){
+        return PIECE_TYPES[pieceType];
+    }
+
+    // pack one of the Move objects generated on a Board
+    public static int fromMove(final Move move){
+        final Piece attackedPiece = move.getAttackedPiece();
+        final int capturedType = attackedPiece == null ? NO_PIECE_TYPE : attackedPiece.getPieceType().ordinal();
+        final int promotionType = move instanceof PawnPromotion ? ((PawnPromotion) move).promotedPiece.getPieceType().ordinal() : NO_PIECE_TYPE;
+        int flags = 0;
+        if (move instanceof PawnJump){
+            flags = PAWN_JUMP_FLAG;
+        } else if (move instanceof PawnEnPassantAttackMove ||
+                   move instanceof PawnPromotion && ((PawnPromotion) move).getDecoratedMove() instanceof PawnEnPassantAttackMove){
+            flags = EN_PASSANT_FLAG;
+        } else if (move instanceof KingSideCastleMove || move instanceof QueenSideCastleMove){
+            flags = CASTLE_FLAG;
+        }
+        return create(move.getCurrentCoordinate(), move.getDestinationCoordinate(), move.getMovedPiece().getPieceType().ordinal(),
+                      capturedType, promotionType, flags);
+    }
+
+    // find the matching Move on the board, a promotion to the same piece
+    public static Move toMove(final Board board, final int move){
+        return Move.MoveFactory.createMove(board, getFrom(move), getTo(move),
+                                           isPromotion(move) ? toPieceType(getPromotionType(move)) : null);
+    }
+
+    // coordinate notation, e.g. e2e4 or e7e8q
+    public static String toString(final int move){
+        if (move == NO_MOVE){
+            return "Null Move";
+        }
+        final String text = BoardUtils.getPositionAtCoordinate(getFrom(move)) + BoardUtils.getPositionAtCoordinate(getTo(move));
+        return isPromotion(move) ? text + toPieceType(getPromotionType(move)).toString().toLowerCase() : text;
+    }
+}
@@ -0,0 +1,85 @@
+package com.chess.engine.board;
+
+/*
+ * A growable list of packed int moves (see IntMove) without any boxing
+ * The search keeps one per ply and clears it instead of allocating a new list at every node
+ */
+
+public class IntMoveList {
+
+    // no legal chess position has more than 218 moves
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public IntMoveList(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntMoveList(final int capacity){
+        this.moves = new int[capacity];
+        this.size = 0;
+    }
+
+    public void add(final int move){
+        if (this.size == this.moves.length){
+            final int[] grown = new int[this.moves.length * 2];
+            System.arraycopy(this.moves, 0, grown, 0, this.size);
+            this.moves = grown;
+        }
+        this.moves[this.size++] = move;
+    }
+
+    public int get(final int index){
+        return this.moves[index];
+    }
+
+    public void set(final int index, final int move){
+        this.moves[index] = move;
+    }
+
+    public void swap(final int first, final int second){
+        final int move = this.moves[first];
+        this.moves[first] = this.moves[second];
+        this.moves[second] = move;
+    }
+
+    // drop every move from the index onwards
+    public void truncate(final int size){
+        this.size = size;
+    }
+
+    public boolean contains(final int move){
+        for (int i = 0; i < this.size; i++){
+            if (this.moves[i] == move){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size(){
+        return this.size;
+    }
+
+    public boolean isEmpty(){
+        return this.size == 0;
+    }
+
+    public void clear(){
+        this.size = 0;
+    }
+
+    @Override
+    public String toString(){
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < this.size; i++){
+            if (i > 0){
+                builder.append(", ");
+            }
+            builder.append(IntMove.toString(this.moves[i]));
+        }
+        return builder.append("]").toString();
+    }
+}
@@ -0,0 +1,52 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+
+/*
+ * Attack tables for the pieces that jump to fixed offsets (knights, kings and pawn captures)
+ * Every square's targets are worked out once from its row and column, so the edge of the board never needs checking again
+ */
+
+public final class LeaperAttacks {
+
+    private static final int[][] KNIGHT_OFFSETS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+    private static final int[][] KING_OFFSETS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+    // white pawns capture towards the eighth rank (lower rows), black pawns towards the first rank
+    private static final int[][] WHITE_PAWN_OFFSETS = {{-1, -1}, {-1, 1}};
+    private static final int[][] BLACK_PAWN_OFFSETS = {{1, -1}, {1, 1}};
+
+    private static final long[] KNIGHT_ATTACKS = initAttacks(KNIGHT_OFFSETS);
+    private static final long[] KING_ATTACKS = initAttacks(KING_OFFSETS);
+    private static final long[][] PAWN_ATTACKS = {initAttacks(WHITE_PAWN_OFFSETS), initAttacks(BLACK_PAWN_OFFSETS)};
+
+    private LeaperAttacks(){
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    public static long knightAttacks(final int square){
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(final int square){
+        return KING_ATTACKS[square];
+    }
+
+    // the squares a pawn of the given alliance standing on the square can capture on
+    public static long pawnAttacks(final Alliance alliance, final int square){
+        return PAWN_ATTACKS[alliance.ordinal()][square];
+    }
+
+    private static long[] initAttacks(final int[][] offsets){
+        final long[] attacks = new long[BoardUtils.NUM_TILES];
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++){
+            for (final int[] offset : offsets){
+                final int row = square / 8 + offset[0];
+                final int column = square % 8 + offset[1];
+                if (row >= 0 && row < 8 && column >= 0 && column < 8){
+                    attacks[square] |= BitBoard.squareMask(row * 8 + column);
+                }
+            }
+        }
+        return attacks;
+    }
+}
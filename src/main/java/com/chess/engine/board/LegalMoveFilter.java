@@ -0,0 +1,100 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/*
+ * Decides whether a pseudo legal move leaves the king in check without making the move
+ * The checking pieces, the pinned pieces and the squares that capture or block a check are worked out once per position
+ * after that a move is legal if:
+ *  - a king move does not land on an attacked square (the king is taken off the board first, so it cannot hide behind itself)
+ *  - a castle does not start in check or pass through or land on an attacked square
+ *  - in double check nothing but the king moves
+ *  - any other move lands on the check mask (every square when not in check)
+ *  - a pinned piece stays on the line through its king and the piece pinning it
+ *  - an enpassant capture takes two pieces off the same rank, so it is checked against the occupancy after the capture
+ */
+
+public class LegalMoveFilter {
+
+    private static final int KING = PieceType.KING.ordinal();
+
+    private final BitBoard bitBoard;
+    private Alliance alliance;
+    private int kingSquare;
+    private long checkers;
+    private long pinnedPieces;
+    private long checkMask;
+
+    public LegalMoveFilter(final BitBoard bitBoard, final Alliance alliance){
+        this.bitBoard = bitBoard;
+        update(alliance);
+    }
+
+    // recalculate for the current position of the bitboard (the search board keeps one filter and updates it at every node)
+    public void update(final Alliance alliance){
+        this.alliance = alliance;
+        this.kingSquare = BitBoard.firstSquare(this.bitBoard.getPieces(alliance, PieceType.KING));
+        this.checkers = this.bitBoard.getCheckers(alliance);
+        this.pinnedPieces = this.bitBoard.getPinnedPieces(alliance);
+        if (this.checkers == 0){
+            this.checkMask = -1L;
+        } else {
+            this.checkMask = this.checkers | SlidingAttacks.between(this.kingSquare, BitBoard.firstSquare(this.checkers));
+        }
+    }
+
+    public long getCheckers(){
+        return this.checkers;
+    }
+
+    public long getPinnedPieces(){
+        return this.pinnedPieces;
+    }
+
+    public long getCheckMask(){
+        return this.checkMask;
+    }
+
+    public boolean isInCheck(){
+        return this.checkers != 0;
+    }
+
+    public boolean isDoubleCheck(){
+        return (this.checkers & (this.checkers - 1)) != 0;
+    }
+
+    public boolean isLegal(final Move move){
+        return isLegal(IntMove.fromMove(move));
+    }
+
+    // the move must be pseudo legal for the alliance this filter was updated for
+    public boolean isLegal(final int move){
+        final int from = IntMove.getFrom(move);
+        final int to = IntMove.getTo(move);
+        final Alliance opponent = this.alliance.getOpposite();
+        final long occupied = this.bitBoard.getOccupied();
+
+        if (IntMove.getMovedType(move) == KING){
+            if (IntMove.isCastle(move)){
+                return this.checkers == 0 &&
+                       !this.bitBoard.isSquareAttacked((from + to) / 2, opponent) &&
+                       !this.bitBoard.isSquareAttacked(to, opponent);
+            }
+            return this.bitBoard.getAttackers(to, opponent, occupied & ~BitBoard.squareMask(from)) == 0;
+        }
+        if (isDoubleCheck()){
+            return false;
+        }
+        if (IntMove.isEnPassant(move)){
+            final long capturedPawn = BitBoard.squareMask(to + 8 * this.alliance.getOppositeDirection());
+            final long afterCapture = (occupied & ~BitBoard.squareMask(from) & ~capturedPawn) | BitBoard.squareMask(to);
+            return (this.bitBoard.getAttackers(this.kingSquare, opponent, afterCapture) & ~capturedPawn) == 0;
+        }
+        final long toMask = BitBoard.squareMask(to);
+        if ((this.checkMask & toMask) == 0){
+            return false;
+        }
+        return (this.pinnedPieces & BitBoard.squareMask(from)) == 0 || (SlidingAttacks.line(this.kingSquare, from) & toMask) != 0;
+    }
+}
@@ -3,6 +3,8 @@ package com.chess.engine.board;
 import com.chess.engine.board.Board.Builder;
 import com.chess.engine.pieces.Pawn;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.pieces.PieceUtils;
 import com.chess.engine.pieces.Rook;
 
 /*
@@ -77,21 +79,11 @@ public abstract class Move {
     }
 
     public Board execute() {
-        final Builder builder = new Builder();
+        // start from a copy of the current board and only change the squares the move touches
+        final Builder builder = new Builder(this.board);
+        builder.removePiece(this.getCurrentCoordinate());
 
-        // set all of current player's pieces except for the moved piece 
-        for (Piece piece: this.board.currentPlayer().getActivePieces()){
-            if (!this.movedPiece.equals(piece)){
-                builder.setPiece(piece);
-            }
-        }
-
-        // set opponent's pieces
-        for (Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()){
-            builder.setPiece(piece);
-        }
-
-        // movePiece returns a new piece with an updated piece position
+        // movePiece returns the piece with an updated piece position, it replaces any piece captured on the destination
         builder.setPiece(movedPiece.movePiece(this));
         builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
         
@@ -216,23 +208,10 @@ public abstract class Move {
 
         @Override
         public Board execute() {
-            final Builder builder = new Builder();
-    
-            // set all of current player's pieces except for the moved piece 
-            for (Piece piece: this.board.currentPlayer().getActivePieces()){
-                if (!this.movedPiece.equals(piece)){
-                    builder.setPiece(piece);
-                }
-            }
-    
-            // set opponent's pieces
-            for (Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()){
-                // this if statement is the difference from the super execute method
-                if (!piece.equals(this.getAttackedPiece())){
-                    builder.setPiece(piece);
-                }
-            }
-    
+            final Builder builder = new Builder(this.board);
+            builder.removePiece(this.getCurrentCoordinate());
+            // the difference from the super execute method, the captured pawn is not on the destination tile
+            builder.removePiece(this.getAttackedPiece().getPiecePosition());
             builder.setPiece(this.movedPiece.movePiece(this));
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
             return builder.build();
@@ -259,12 +238,14 @@ public abstract class Move {
 
         @Override
         public int hashCode(){
-            return decoratedMove.hashCode() + (31 * promotedPawn.hashCode());
+            return decoratedMove.hashCode() + (31 * promotedPawn.hashCode()) + (31 * 31 * promotedPiece.hashCode());
         }
 
+        // the promotions of one pawn move only differ by the piece the pawn becomes
         @Override
         public boolean equals(Object other){
-            return this == other || other instanceof PawnPromotion && super.equals(other);
+            return this == other || other instanceof PawnPromotion && super.equals(other) &&
+                   this.promotedPiece.equals(((PawnPromotion) other).promotedPiece);
         }
 
         @Override
@@ -284,25 +265,18 @@ public abstract class Move {
 
         @Override
         public Board execute() {
-            final Board pawnMovedBoard = this.decoratedMove.execute();
-            final Builder builder = new Builder();
-    
-            for (Piece piece: pawnMovedBoard.currentPlayer().getActivePieces()){
-                builder.setPiece(piece);
-            }
-    
-            for (Piece piece: pawnMovedBoard.currentPlayer().getOpponent().getActivePieces()){
-                if (!piece.equals(promotedPawn)){
-                    builder.setPiece(piece);
-                }
-            }
-            // set the promoted piece on the board using the destination coordinates of the decorated move
+            // the pawn leaves its tile like in the decorated move, but the promoted piece lands on the destination instead of the pawn
+            final Builder builder = new Builder(this.board);
+            builder.removePiece(this.promotedPawn.getPiecePosition());
             builder.setPiece(this.promotedPiece.movePiece(this));
-            // do not set the move maker to the opponent, because when the decorated move executed, the move maker was already set to the opponent
-            builder.setMoveMaker(pawnMovedBoard.currentPlayer().getAlliance());
+            builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
             return builder.build();
         }
 
+        public Piece getPromotedPiece(){
+            return this.promotedPiece;
+        }
+
         public Move getDecoratedMove(){
             return decoratedMove;
         }   
@@ -317,19 +291,8 @@ public abstract class Move {
 
         @Override
         public Board execute() {
-            final Builder builder = new Builder();
-    
-            // set all of current player's pieces except for the moved piece 
-            for (Piece piece: this.board.currentPlayer().getActivePieces()){
-                if (!this.movedPiece.equals(piece)){
-                    builder.setPiece(piece);
-                }
-            }
-    
-            // set opponent's pieces
-            for (Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()){
-                builder.setPiece(piece);
-            }
+            final Builder builder = new Builder(this.board);
+            builder.removePiece(this.getCurrentCoordinate());
     
             Pawn movedPawn = (Pawn) this.movedPiece.movePiece(this);
             builder.setPiece(movedPawn);
@@ -374,22 +337,12 @@ public abstract class Move {
 
         @Override
         public Board execute() {
-            final Builder builder = new Builder();
-    
-            // set all of current player's pieces except for the moved piece and the castle rook
-            for (Piece piece: this.board.currentPlayer().getActivePieces()){
-                if (!this.movedPiece.equals(piece) && !this.castleRook.equals(piece)){
-                    builder.setPiece(piece);
-                }
-            }
-    
-            // set opponent's pieces
-            for (Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()){
-                builder.setPiece(piece);
-            }
-    
+            // take the king and the castle rook off their tiles, then put them down on the other side of each other
+            final Builder builder = new Builder(this.board);
+            builder.removePiece(this.getCurrentCoordinate());
+            builder.removePiece(this.castleRook.getPiecePosition());
             builder.setPiece(this.movedPiece.movePiece(this));
-            builder.setPiece(new Rook(this.castleRookDestination, this.castleRook.getPieceAlliance()));
+            builder.setPiece(PieceUtils.getRook(this.castleRook.getPieceAlliance(), this.castleRookDestination, false));
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
             return builder.build();
         }
@@ -481,19 +434,18 @@ public abstract class Move {
         private MoveFactory(){
             throw new RuntimeException("Non instantiable");
         }
-        // return a move from the boards legal moves given the current and destination coordinates
+        // return a move from the boards legal moves given the current and destination coordinates, a promotion becomes a queen
         public static Move createMove(Board board, int currentCoordinate, int destinationCoordinate){
-            for (Move move: board.getAllLegalMoves()){
-                if (move.getCurrentCoordinate() == currentCoordinate && move.getDestinationCoordinate() == destinationCoordinate){
-                    return move;
-                }
-            }
+            return board.getMove(currentCoordinate, destinationCoordinate, null);
+        }
 
-            return NULL_MOVE;
+        // the promotion type picks which promotion is returned, it is ignored for every other move
+        public static Move createMove(Board board, int currentCoordinate, int destinationCoordinate, PieceType promotionType){
+            return board.getMove(currentCoordinate, destinationCoordinate, promotionType);
         }
+
         public static Move getNullMove() {
-            // TODO Auto-generated method stub
-            throw new UnsupportedOperationException("Unimplemented method 'getNullMove'");
+            return NULL_MOVE;
         }
     }
     public int getDestinationCoordinate() {
@@ -0,0 +1,663 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board.Builder;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.pieces.PieceUtils;
+
+/*
+ * The search board is a mutable copy of a Board used by the search
+ * Moves are applied to it in place and reverted with unmakeMove, instead of building a new Board for every node
+ * Moves are packed ints (see IntMove), the move itself records the moved and captured piece,
+ * and the castling rights and enpassant square it replaced are kept next to it on an undo stack
+ * The immutable Board is still what the gui, the players and the tests work with, toBoard() converts back
+ */
+
+public class SearchBoard {
+
+    public static final int MAX_PLY = 128;
+
+    public static final int NO_PIECE = -1;
+    public static final int NO_SQUARE = -1;
+
+    public static final int WHITE_KING_SIDE_CASTLE = 1;
+    public static final int WHITE_QUEEN_SIDE_CASTLE = 2;
+    public static final int BLACK_KING_SIDE_CASTLE = 4;
+    public static final int BLACK_QUEEN_SIDE_CASTLE = 8;
+
+    // move generation stages, see generateCaptures and generateQuietMoves
+    private static final int CAPTURES = 1;
+    private static final int QUIET_MOVES = 2;
+    private static final int ALL_MOVES = CAPTURES | QUIET_MOVES;
+
+    // castling rights that survive a move from or to each square (moving the king or a rook, or capturing a rook)
+    private static final int[] CASTLING_RIGHTS_MASKS = initCastlingRightsMasks();
+
+    private static final Alliance[] ALLIANCES = Alliance.values();
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private final BitBoard bitBoard;
+    // the piece on each square, as BitBoard.pieceIndex(alliance, pieceType), or NO_PIECE
+    private final int[] squares;
+    private Alliance sideToMove;
+    private int castlingRights;
+    // the square a pawn jumped over on the last move, or NO_SQUARE
+    private int enPassantSquare;
+    // kept up to date by every piece put on or taken off the board, and by make/unmake for the rest of the position
+    private long zobristHash;
+
+    private int ply;
+    private final int[] undoMoves = new int[MAX_PLY];
+    private final int[] undoCastlingRights = new int[MAX_PLY];
+    private final int[] undoEnPassantSquare = new int[MAX_PLY];
+    private final long[] undoZobristHash = new long[MAX_PLY];
+
+    // whether each alliance has castled, for the evaluation (a castle move sets it, unmaking the castle clears it)
+    private final boolean[] isCastled = new boolean[2];
+
+    private final LegalMoveFilter legalMoveFilter;
+    private boolean isLegalMoveFilterCurrent;
+    // for the questions that need a move list but not the moves (castles, is there any legal move), so they allocate nothing
+    private final IntMoveList scratchMoves = new IntMoveList();
+
+    public SearchBoard(final Board board){
+        this.bitBoard = new BitBoard();
+        this.squares = new int[BoardUtils.NUM_TILES];
+        setPosition(board);
+        this.legalMoveFilter = new LegalMoveFilter(this.bitBoard, this.sideToMove);
+        this.isLegalMoveFilterCurrent = true;
+    }
+
+    // load another position into this board, so a search can reuse one board (and its undo stack) for every move it is asked for
+    public void setPosition(final Board board){
+        this.bitBoard.clear();
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++){
+            this.squares[i] = NO_PIECE;
+        }
+        for (final Piece piece : board.getAllPieces()){
+            putPiece(BitBoard.pieceIndex(piece.getPieceAlliance(), piece.getPieceType()), piece.getPiecePosition());
+        }
+        this.sideToMove = board.currentPlayer().getAlliance();
+        this.castlingRights = board.getCastlingRights();
+        this.enPassantSquare = board.getEnPassantSquare();
+        this.zobristHash = board.getZobristHash();
+        this.isCastled[Alliance.WHITE.ordinal()] = board.whitePlayer().isCastled();
+        this.isCastled[Alliance.BLACK.ordinal()] = board.blackPlayer().isCastled();
+        this.ply = 0;
+        this.isLegalMoveFilterCurrent = false;
+    }
+
+    /* Castling rights follow the same rules the players use to generate castle moves:
+     * the king and the rook must both be on their starting squares and neither can have moved yet
+     */
+    public static int calculateCastlingRights(final Board board){
+        int castlingRights = 0;
+        if (isUnmoved(board.getPiece(60), Alliance.WHITE, PieceType.KING)){
+            if (isUnmoved(board.getPiece(63), Alliance.WHITE, PieceType.ROOK)){
+                castlingRights |= WHITE_KING_SIDE_CASTLE;
+            }
+            if (isUnmoved(board.getPiece(56), Alliance.WHITE, PieceType.ROOK)){
+                castlingRights |= WHITE_QUEEN_SIDE_CASTLE;
+            }
+        }
+        if (isUnmoved(board.getPiece(4), Alliance.BLACK, PieceType.KING)){
+            if (isUnmoved(board.getPiece(7), Alliance.BLACK, PieceType.ROOK)){
+                castlingRights |= BLACK_KING_SIDE_CASTLE;
+            }
+            if (isUnmoved(board.getPiece(0), Alliance.BLACK, PieceType.ROOK)){
+                castlingRights |= BLACK_QUEEN_SIDE_CASTLE;
+            }
+        }
+        return castlingRights;
+    }
+
+    private static boolean isUnmoved(final Piece piece, final Alliance alliance, final PieceType pieceType){
+        return piece != null && piece.getPieceAlliance() == alliance && piece.getPieceType() == pieceType && piece.isFirstMove();
+    }
+
+    public BitBoard getBitBoard(){
+        return this.bitBoard;
+    }
+
+    public Alliance getSideToMove(){
+        return this.sideToMove;
+    }
+
+    public int getCastlingRights(){
+        return this.castlingRights;
+    }
+
+    public int getEnPassantSquare(){
+        return this.enPassantSquare;
+    }
+
+    public long getZobristHash(){
+        return this.zobristHash;
+    }
+
+    public int getPly(){
+        return this.ply;
+    }
+
+    // the piece on the square as BitBoard.pieceIndex(alliance, pieceType), or NO_PIECE
+    public int getPiece(final int square){
+        return this.squares[square];
+    }
+
+    public static Alliance getPieceAlliance(final int piece){
+        return ALLIANCES[piece / BitBoard.NUM_PIECE_TYPES];
+    }
+
+    public static PieceType getPieceType(final int piece){
+        return PIECE_TYPES[piece % BitBoard.NUM_PIECE_TYPES];
+    }
+
+    public int getKingSquare(final Alliance alliance){
+        return BitBoard.firstSquare(this.bitBoard.getPieces(alliance, PieceType.KING));
+    }
+
+    public boolean isInCheck(){
+        return isInCheck(this.sideToMove);
+    }
+
+    public boolean isInCheck(final Alliance alliance){
+        return this.bitBoard.isSquareAttacked(getKingSquare(alliance), alliance.getOpposite());
+    }
+
+    // anything besides the king and pawns, without it passing the move can be the best move (zugzwang)
+    public boolean hasNonPawnMaterial(final Alliance alliance){
+        return (this.bitBoard.getAlliancePieces(alliance) & ~this.bitBoard.getPieces(alliance, PieceType.PAWN) &
+                ~this.bitBoard.getPieces(alliance, PieceType.KING)) != 0;
+    }
+
+    public boolean isCastled(final Alliance alliance){
+        return this.isCastled[alliance.ordinal()];
+    }
+
+    public boolean hasLegalMoves(){
+        this.scratchMoves.clear();
+        generateLegalMoves(this.scratchMoves);
+        return !this.scratchMoves.isEmpty();
+    }
+
+    public boolean isInCheckMate(){
+        return isInCheck() && !hasLegalMoves();
+    }
+
+    public boolean isInStaleMate(){
+        return !isInCheck() && !hasLegalMoves();
+    }
+
+    /* The number of pseudo legal moves the alliance has, counted the way Player.getLegalMoves() counts them
+     * (a promotion counts once for every promotion piece, enpassant only for the side to move) without building any moves
+     */
+    public int countPseudoLegalMoves(final Alliance alliance){
+        final long ownPieces = this.bitBoard.getAlliancePieces(alliance);
+        final long enemyPieces = this.bitBoard.getAlliancePieces(alliance.getOpposite());
+        final long occupied = this.bitBoard.getOccupied();
+        final boolean[] startRank = alliance.isWhite() ? BoardUtils.SECOND_RANK : BoardUtils.SEVENTH_RANK;
+        int count = 0;
+        long pawns = this.bitBoard.getPieces(alliance, PieceType.PAWN);
+        while (pawns != 0){
+            final int from = BitBoard.firstSquare(pawns);
+            pawns &= pawns - 1;
+            final int forward = from + 8 * alliance.getDirection();
+            final long attacks = LeaperAttacks.pawnAttacks(alliance, from);
+            int pawnMoves = BitBoard.popCount(attacks & enemyPieces);
+            if (this.squares[forward] == NO_PIECE){
+                pawnMoves++;
+                if (startRank[from] && this.squares[forward + 8 * alliance.getDirection()] == NO_PIECE){
+                    count++;
+                }
+            }
+            count += alliance.isPawnPromotionSquare(forward) ? 4 * pawnMoves : pawnMoves;
+            if (alliance == this.sideToMove && this.enPassantSquare != NO_SQUARE && (attacks & BitBoard.squareMask(this.enPassantSquare)) != 0){
+                count++;
+            }
+        }
+        for (int pieceType = PieceType.KNIGHT.ordinal(); pieceType <= PieceType.KING.ordinal(); pieceType++){
+            long pieces = this.bitBoard.getPieces(alliance, PIECE_TYPES[pieceType]);
+            while (pieces != 0){
+                final int from = BitBoard.firstSquare(pieces);
+                pieces &= pieces - 1;
+                count += BitBoard.popCount(attacks(pieceType, from, occupied) & ~ownPieces);
+            }
+        }
+        this.scratchMoves.clear();
+        generateCastleMoves(this.scratchMoves, alliance);
+        return count + this.scratchMoves.size();
+    }
+
+    // apply one of the moves generated on the Board this search board was made from (or an equal one)
+    public void makeMove(final Move move){
+        makeMove(IntMove.fromMove(move));
+    }
+
+    // apply a packed move (see IntMove) in place
+    public void makeMove(final int move){
+        final int from = IntMove.getFrom(move);
+        final int to = IntMove.getTo(move);
+        final int movedPiece = this.squares[from];
+
+        this.undoMoves[this.ply] = move;
+        this.undoCastlingRights[this.ply] = this.castlingRights;
+        this.undoEnPassantSquare[this.ply] = this.enPassantSquare;
+        this.undoZobristHash[this.ply] = this.zobristHash;
+
+        if (IntMove.isEnPassant(move)){
+            removePiece(to + 8 * this.sideToMove.getOppositeDirection());
+        } else if (IntMove.isCapture(move)){
+            removePiece(to);
+        }
+
+        removePiece(from);
+        putPiece(IntMove.isPromotion(move) ? BitBoard.pieceIndex(this.sideToMove, IntMove.toPieceType(IntMove.getPromotionType(move))) : movedPiece, to);
+
+        if (IntMove.isCastle(move)){
+            // the rook jumps over the king, from the corner on the side the king moved to
+            putPiece(this.squares[castleRookFrom(from, to)], castleRookTo(from, to));
+            removePiece(castleRookFrom(from, to));
+            this.isCastled[this.sideToMove.ordinal()] = true;
+        }
+
+        this.zobristHash ^= Zobrist.enPassantKey(this.enPassantSquare) ^ Zobrist.castlingKey(this.castlingRights);
+        this.enPassantSquare = IntMove.isPawnJump(move) ? (from + to) / 2 : NO_SQUARE;
+        this.castlingRights &= CASTLING_RIGHTS_MASKS[from] & CASTLING_RIGHTS_MASKS[to];
+        this.zobristHash ^= Zobrist.enPassantKey(this.enPassantSquare) ^ Zobrist.castlingKey(this.castlingRights) ^
+                            Zobrist.sideToMoveKey(Alliance.BLACK);
+        this.sideToMove = this.sideToMove.getOpposite();
+        this.ply++;
+        this.isLegalMoveFilterCurrent = false;
+    }
+
+    // revert the last move made on this board
+    public void unmakeMove(){
+        this.ply--;
+        this.sideToMove = this.sideToMove.getOpposite();
+        this.castlingRights = this.undoCastlingRights[this.ply];
+        this.enPassantSquare = this.undoEnPassantSquare[this.ply];
+
+        final int move = this.undoMoves[this.ply];
+        final int from = IntMove.getFrom(move);
+        final int to = IntMove.getTo(move);
+
+        if (IntMove.isCastle(move)){
+            putPiece(this.squares[castleRookTo(from, to)], castleRookFrom(from, to));
+            removePiece(castleRookTo(from, to));
+            this.isCastled[this.sideToMove.ordinal()] = false;
+        }
+
+        removePiece(to);
+        putPiece(BitBoard.pieceIndex(this.sideToMove, IntMove.toPieceType(IntMove.getMovedType(move))), from);
+
+        if (IntMove.isCapture(move)){
+            final int capturedPiece = BitBoard.pieceIndex(this.sideToMove.getOpposite(), IntMove.toPieceType(IntMove.getCapturedType(move)));
+            putPiece(capturedPiece, IntMove.isEnPassant(move) ? to + 8 * this.sideToMove.getOppositeDirection() : to);
+        }
+        this.zobristHash = this.undoZobristHash[this.ply];
+        this.isLegalMoveFilterCurrent = false;
+    }
+
+    /* Pass the move to the opponent (not a chess move, the search uses it to see whether the position is good enough
+     * that even doing nothing holds), undone with unmakeNullMove
+     * It is recorded as IntMove.NO_MOVE, so getLastMove tells the search a null move was just made
+     */
+    public void makeNullMove(){
+        this.undoMoves[this.ply] = IntMove.NO_MOVE;
+        this.undoCastlingRights[this.ply] = this.castlingRights;
+        this.undoEnPassantSquare[this.ply] = this.enPassantSquare;
+        this.undoZobristHash[this.ply] = this.zobristHash;
+
+        this.zobristHash ^= Zobrist.enPassantKey(this.enPassantSquare) ^ Zobrist.enPassantKey(NO_SQUARE) ^
+                            Zobrist.sideToMoveKey(Alliance.BLACK);
+        this.enPassantSquare = NO_SQUARE;
+        this.sideToMove = this.sideToMove.getOpposite();
+        this.ply++;
+        this.isLegalMoveFilterCurrent = false;
+    }
+
+    public void unmakeNullMove(){
+        this.ply--;
+        this.sideToMove = this.sideToMove.getOpposite();
+        this.enPassantSquare = this.undoEnPassantSquare[this.ply];
+        this.zobristHash = this.undoZobristHash[this.ply];
+        this.isLegalMoveFilterCurrent = false;
+    }
+
+    // the last move made on this board, or IntMove.NO_MOVE at the root and after a null move
+    public int getLastMove(){
+        return this.ply == 0 ? IntMove.NO_MOVE : this.undoMoves[this.ply - 1];
+    }
+
+    private static int castleRookFrom(final int kingFrom, final int kingTo){
+        return kingTo > kingFrom ? kingFrom + 3 : kingFrom - 4;
+    }
+
+    private static int castleRookTo(final int kingFrom, final int kingTo){
+        return kingTo > kingFrom ? kingFrom + 1 : kingFrom - 1;
+    }
+
+    /* Pseudo legal moves for the side to move, moves that leave the king in check are still included
+     * Pawns reaching the last rank generate a move for every promotion piece, queen first
+     */
+    public void generatePseudoLegalMoves(final IntMoveList moves){
+        generateMoves(moves, -1L, ALL_MOVES);
+    }
+
+    /* Only legal moves, added after any moves already in the list
+     * In double check only the king can move, in single check the other pieces are only generated onto the check mask,
+     * the pins, king moves and enpassant captures are then checked by the filter without making any move
+     */
+    public void generateLegalMoves(final IntMoveList moves){
+        generateLegalMoves(moves, ALL_MOVES);
+    }
+
+    // legal captures, enpassant and promotions (including promotions that capture nothing)
+    public void generateCaptures(final IntMoveList moves){
+        generateLegalMoves(moves, CAPTURES);
+    }
+
+    // every legal move generateCaptures leaves out: quiet moves, pawn jumps and castles
+    public void generateQuietMoves(final IntMoveList moves){
+        generateLegalMoves(moves, QUIET_MOVES);
+    }
+
+    /* Whether a move remembered from another position (a hash move or a killer) is legal here,
+     * checked against the piece on its square and that piece's attacks instead of generating every move
+     */
+    public boolean isLegalMove(final int move){
+        if (move == IntMove.NO_MOVE){
+            return false;
+        }
+        final int from = IntMove.getFrom(move);
+        final int to = IntMove.getTo(move);
+        final int movedType = IntMove.getMovedType(move);
+        if (this.squares[from] != BitBoard.pieceIndex(this.sideToMove, PIECE_TYPES[movedType])){
+            return false;
+        }
+        if (IntMove.isCastle(move)){
+            this.scratchMoves.clear();
+            generateCastleMoves(this.scratchMoves, this.sideToMove);
+            return this.scratchMoves.contains(move);
+        }
+        if (IntMove.isEnPassant(move)){
+            if (to != this.enPassantSquare || (LeaperAttacks.pawnAttacks(this.sideToMove, from) & BitBoard.squareMask(to)) == 0){
+                return false;
+            }
+        } else {
+            final int capturedPiece = this.squares[to];
+            final int capturedType = capturedPiece == NO_PIECE ? IntMove.NO_PIECE_TYPE : capturedPiece % BitBoard.NUM_PIECE_TYPES;
+            if (capturedType != IntMove.getCapturedType(move) ||
+                (capturedPiece != NO_PIECE && getPieceAlliance(capturedPiece) == this.sideToMove) ||
+                !isPseudoLegalDestination(move, from, to, movedType)){
+                return false;
+            }
+        }
+        updateLegalMoveFilter();
+        if (this.legalMoveFilter.isDoubleCheck() && movedType != PieceType.KING.ordinal()){
+            return false;
+        }
+        return this.legalMoveFilter.isLegal(move);
+    }
+
+    private boolean isPseudoLegalDestination(final int move, final int from, final int to, final int movedType){
+        if (movedType != PieceType.PAWN.ordinal()){
+            return !IntMove.isPromotion(move) && !IntMove.isPawnJump(move) &&
+                   (attacks(movedType, from, this.bitBoard.getOccupied()) & BitBoard.squareMask(to)) != 0;
+        }
+        if (IntMove.isPromotion(move) != this.sideToMove.isPawnPromotionSquare(to)){
+            return false;
+        }
+        final int forward = from + 8 * this.sideToMove.getDirection();
+        if (IntMove.isCapture(move)){
+            return !IntMove.isPawnJump(move) && (LeaperAttacks.pawnAttacks(this.sideToMove, from) & BitBoard.squareMask(to)) != 0;
+        }
+        if (IntMove.isPawnJump(move)){
+            final boolean[] startRank = this.sideToMove.isWhite() ? BoardUtils.SECOND_RANK : BoardUtils.SEVENTH_RANK;
+            return startRank[from] && to == forward + 8 * this.sideToMove.getDirection() &&
+                   this.squares[forward] == NO_PIECE && this.squares[to] == NO_PIECE;
+        }
+        return to == forward && this.squares[to] == NO_PIECE;
+    }
+
+    private void generateLegalMoves(final IntMoveList moves, final int stages){
+        final int start = moves.size();
+        updateLegalMoveFilter();
+        if (this.legalMoveFilter.isDoubleCheck()){
+            final int king = getKingSquare(this.sideToMove);
+            addMoves(moves, king, LeaperAttacks.kingAttacks(king) & ~this.bitBoard.getAlliancePieces(this.sideToMove) & stageTargets(stages),
+                     PieceType.KING.ordinal());
+        } else {
+            generateMoves(moves, this.legalMoveFilter.getCheckMask(), stages);
+        }
+        int legalCount = start;
+        for (int i = start; i < moves.size(); i++){
+            final int move = moves.get(i);
+            if (this.legalMoveFilter.isLegal(move)){
+                moves.set(legalCount++, move);
+            }
+        }
+        moves.truncate(legalCount);
+    }
+
+    // the filter only changes when a move is made or unmade, so the stages of one node share it
+    private void updateLegalMoveFilter(){
+        if (!this.isLegalMoveFilterCurrent){
+            this.legalMoveFilter.update(this.sideToMove);
+            this.isLegalMoveFilterCurrent = true;
+        }
+    }
+
+    // the squares a non pawn move can land on in these stages: enemy pieces for captures, empty squares for quiet moves
+    private long stageTargets(final int stages){
+        long targets = 0;
+        if ((stages & CAPTURES) != 0){
+            targets |= this.bitBoard.getAlliancePieces(this.sideToMove.getOpposite());
+        }
+        if ((stages & QUIET_MOVES) != 0){
+            targets |= this.bitBoard.getEmpty();
+        }
+        return targets;
+    }
+
+    // every piece but the king only moves onto the target mask (enpassant is always generated, the capture can remove a checker)
+    private void generateMoves(final IntMoveList moves, final long targets, final int stages){
+        final long stageTargets = stageTargets(stages);
+        final long occupied = this.bitBoard.getOccupied();
+        generatePawnMoves(moves, targets, stages);
+        for (int pieceType = PieceType.KNIGHT.ordinal(); pieceType <= PieceType.KING.ordinal(); pieceType++){
+            final long pieceTargets = pieceType == PieceType.KING.ordinal() ? stageTargets : stageTargets & targets;
+            long pieces = this.bitBoard.getPieces(this.sideToMove, PIECE_TYPES[pieceType]);
+            while (pieces != 0){
+                final int from = BitBoard.firstSquare(pieces);
+                pieces &= pieces - 1;
+                addMoves(moves, from, attacks(pieceType, from, occupied) & pieceTargets, pieceType);
+            }
+        }
+        if ((stages & QUIET_MOVES) != 0){
+            generateCastleMoves(moves, this.sideToMove);
+        }
+    }
+
+    private static long attacks(final int pieceType, final int square, final long occupied){
+        switch (PIECE_TYPES[pieceType]){
+            case KNIGHT:
+                return LeaperAttacks.knightAttacks(square);
+            case BISHOP:
+                return SlidingAttacks.bishopAttacks(square, occupied);
+            case ROOK:
+                return SlidingAttacks.rookAttacks(square, occupied);
+            case QUEEN:
+                return SlidingAttacks.queenAttacks(square, occupied);
+            default:
+                return LeaperAttacks.kingAttacks(square);
+        }
+    }
+
+    private void addMoves(final IntMoveList moves, final int from, long destinations, final int movedType){
+        while (destinations != 0){
+            final int to = BitBoard.firstSquare(destinations);
+            destinations &= destinations - 1;
+            final int capturedPiece = this.squares[to];
+            final int capturedType = capturedPiece == NO_PIECE ? IntMove.NO_PIECE_TYPE : capturedPiece % BitBoard.NUM_PIECE_TYPES;
+            moves.add(IntMove.create(from, to, movedType, capturedType, IntMove.NO_PIECE_TYPE, 0));
+        }
+    }
+
+    // pushes onto the last rank promote, so they belong with the captures
+    private void generatePawnMoves(final IntMoveList moves, final long targets, final int stages){
+        final Alliance us = this.sideToMove;
+        final int pawn = PieceType.PAWN.ordinal();
+        final boolean captures = (stages & CAPTURES) != 0;
+        final boolean quietMoves = (stages & QUIET_MOVES) != 0;
+        final long enemyPieces = this.bitBoard.getAlliancePieces(us.getOpposite());
+        final boolean[] startRank = us.isWhite() ? BoardUtils.SECOND_RANK : BoardUtils.SEVENTH_RANK;
+        long pawns = this.bitBoard.getPieces(us, PieceType.PAWN);
+        while (pawns != 0){
+            final int from = BitBoard.firstSquare(pawns);
+            pawns &= pawns - 1;
+
+            final int forward = from + 8 * us.getDirection();
+            if (this.squares[forward] == NO_PIECE){
+                final boolean isPromotion = us.isPawnPromotionSquare(forward);
+                if ((targets & BitBoard.squareMask(forward)) != 0 && (isPromotion ? captures : quietMoves)){
+                    addPawnMove(moves, from, forward, IntMove.NO_PIECE_TYPE, 0);
+                }
+                final int jump = forward + 8 * us.getDirection();
+                if (quietMoves && startRank[from] && this.squares[jump] == NO_PIECE && (targets & BitBoard.squareMask(jump)) != 0){
+                    moves.add(IntMove.create(from, jump, pawn, IntMove.NO_PIECE_TYPE, IntMove.NO_PIECE_TYPE, IntMove.PAWN_JUMP_FLAG));
+                }
+            }
+
+            if (!captures){
+                continue;
+            }
+            final long attacks = LeaperAttacks.pawnAttacks(us, from);
+            long pawnCaptures = attacks & enemyPieces & targets;
+            while (pawnCaptures != 0){
+                final int to = BitBoard.firstSquare(pawnCaptures);
+                pawnCaptures &= pawnCaptures - 1;
+                addPawnMove(moves, from, to, this.squares[to] % BitBoard.NUM_PIECE_TYPES, 0);
+            }
+            if (this.enPassantSquare != NO_SQUARE && (attacks & BitBoard.squareMask(this.enPassantSquare)) != 0){
+                moves.add(IntMove.create(from, this.enPassantSquare, pawn, pawn, IntMove.NO_PIECE_TYPE, IntMove.EN_PASSANT_FLAG));
+            }
+        }
+    }
+
+    private void addPawnMove(final IntMoveList moves, final int from, final int to, final int capturedType, final int flags){
+        final int pawn = PieceType.PAWN.ordinal();
+        if (this.sideToMove.isPawnPromotionSquare(to)){
+            for (int promotionType = PieceType.QUEEN.ordinal(); promotionType >= PieceType.KNIGHT.ordinal(); promotionType--){
+                moves.add(IntMove.create(from, to, pawn, capturedType, promotionType, flags));
+            }
+        } else {
+            moves.add(IntMove.create(from, to, pawn, capturedType, IntMove.NO_PIECE_TYPE, flags));
+        }
+    }
+
+    // same rules as the players: the king is not in check and does not pass through or land on an attacked square
+    private void generateCastleMoves(final IntMoveList moves, final Alliance alliance){
+        final boolean isWhite = alliance.isWhite();
+        final int kingSide = isWhite ? WHITE_KING_SIDE_CASTLE : BLACK_KING_SIDE_CASTLE;
+        final int queenSide = isWhite ? WHITE_QUEEN_SIDE_CASTLE : BLACK_QUEEN_SIDE_CASTLE;
+        if ((this.castlingRights & (kingSide | queenSide)) == 0 || isInCheck(alliance)){
+            return;
+        }
+        final int king = isWhite ? 60 : 4;
+        final Alliance them = alliance.getOpposite();
+        if ((this.castlingRights & kingSide) != 0 &&
+            this.squares[king + 1] == NO_PIECE && this.squares[king + 2] == NO_PIECE &&
+            !this.bitBoard.isSquareAttacked(king + 1, them) && !this.bitBoard.isSquareAttacked(king + 2, them)){
+            moves.add(IntMove.create(king, king + 2, PieceType.KING.ordinal(), IntMove.NO_PIECE_TYPE, IntMove.NO_PIECE_TYPE, IntMove.CASTLE_FLAG));
+        }
+        if ((this.castlingRights & queenSide) != 0 &&
+            this.squares[king - 1] == NO_PIECE && this.squares[king - 2] == NO_PIECE && this.squares[king - 3] == NO_PIECE &&
+            !this.bitBoard.isSquareAttacked(king - 1, them) && !this.bitBoard.isSquareAttacked(king - 2, them)){
+            moves.add(IntMove.create(king, king - 2, PieceType.KING.ordinal(), IntMove.NO_PIECE_TYPE, IntMove.NO_PIECE_TYPE, IntMove.CASTLE_FLAG));
+        }
+    }
+
+    // build the immutable board for the current position
+    public Board toBoard(){
+        final Builder builder = new Builder();
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++){
+            if (this.squares[square] != NO_PIECE){
+                builder.setPiece(createPiece(this.squares[square], square));
+            }
+        }
+        if (this.enPassantSquare != NO_SQUARE){
+            // the jumped pawn belongs to the player who just moved, one square past the enpassant square
+            final int pawnSquare = this.enPassantSquare + 8 * this.sideToMove.getOpposite().getDirection();
+            builder.setEnPassantPawn(PieceUtils.getPawn(this.sideToMove.getOpposite(), pawnSquare, false));
+        }
+        builder.setMoveMaker(this.sideToMove);
+        return builder.build();
+    }
+
+    private Piece createPiece(final int piece, final int square){
+        final Alliance alliance = getPieceAlliance(piece);
+        switch (getPieceType(piece)){
+            case PAWN:
+                // pawns can only jump from their starting rank
+                return PieceUtils.getPawn(alliance, square, alliance.isWhite() ? BoardUtils.SECOND_RANK[square] : BoardUtils.SEVENTH_RANK[square]);
+            case KNIGHT:
+                return PieceUtils.getKnight(alliance, square, true);
+            case BISHOP:
+                return PieceUtils.getBishop(alliance, square, true);
+            case ROOK:
+                return PieceUtils.getRook(alliance, square, hasRookCastlingRight(alliance, square));
+            case QUEEN:
+                return PieceUtils.getQueen(alliance, square, true);
+            default:
+                final int kingSide = alliance.isWhite() ? WHITE_KING_SIDE_CASTLE : BLACK_KING_SIDE_CASTLE;
+                final int queenSide = alliance.isWhite() ? WHITE_QUEEN_SIDE_CASTLE : BLACK_QUEEN_SIDE_CASTLE;
+                final boolean kingSideCapable = (this.castlingRights & kingSide) != 0;
+                final boolean queenSideCapable = (this.castlingRights & queenSide) != 0;
+                return PieceUtils.getKing(alliance, square, kingSideCapable || queenSideCapable, isCastled(alliance),
+                                          kingSideCapable, queenSideCapable);
+        }
+    }
+
+    private boolean hasRookCastlingRight(final Alliance alliance, final int square){
+        if (alliance.isWhite()){
+            return (square == 63 && (this.castlingRights & WHITE_KING_SIDE_CASTLE) != 0) ||
+                   (square == 56 && (this.castlingRights & WHITE_QUEEN_SIDE_CASTLE) != 0);
+        }
+        return (square == 7 && (this.castlingRights & BLACK_KING_SIDE_CASTLE) != 0) ||
+               (square == 0 && (this.castlingRights & BLACK_QUEEN_SIDE_CASTLE) != 0);
+    }
+
+    private void putPiece(final int piece, final int square){
+        this.squares[square] = piece;
+        this.zobristHash ^= Zobrist.pieceKey(piece, square);
+        this.bitBoard.addPiece(getPieceAlliance(piece), getPieceType(piece), square);
+    }
+
+    private void removePiece(final int square){
+        final int piece = this.squares[square];
+        this.squares[square] = NO_PIECE;
+        this.zobristHash ^= Zobrist.pieceKey(piece, square);
+        this.bitBoard.removePiece(getPieceAlliance(piece), getPieceType(piece), square);
+    }
+
+    private static int[] initCastlingRightsMasks(){
+        final int[] masks = new int[BoardUtils.NUM_TILES];
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++){
+            masks[i] = WHITE_KING_SIDE_CASTLE | WHITE_QUEEN_SIDE_CASTLE | BLACK_KING_SIDE_CASTLE | BLACK_QUEEN_SIDE_CASTLE;
+        }
+        masks[0] &= ~BLACK_QUEEN_SIDE_CASTLE;
+        masks[4] &= ~(BLACK_KING_SIDE_CASTLE | BLACK_QUEEN_SIDE_CASTLE);
+        masks[7] &= ~BLACK_KING_SIDE_CASTLE;
+        masks[56] &= ~WHITE_QUEEN_SIDE_CASTLE;
+        masks[60] &= ~(WHITE_KING_SIDE_CASTLE | WHITE_QUEEN_SIDE_CASTLE);
+        masks[63] &= ~WHITE_KING_SIDE_CASTLE;
+        return masks;
+    }
+
+    @Override
+    public String toString(){
+        return toBoard().toString();
+    }
+}
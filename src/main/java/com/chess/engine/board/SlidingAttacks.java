@@ -0,0 +1,170 @@
+package com.chess.engine.board;
+
+import java.util.Random;
+
+/*
+ * Magic bitboard lookup tables for the sliding pieces
+ * For every square, the occupancy of the squares a rook (or bishop) can be blocked on is multiplied by a magic number,
+ * the top bits of the product index a table that holds the attacks for that occupancy
+ * The magic numbers are searched for once at class load with a fixed seed, so the tables are the same on every run
+ */
+
+public final class SlidingAttacks {
+
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    private static final long[] ROOK_MASKS = new long[BoardUtils.NUM_TILES];
+    private static final long[] ROOK_MAGICS = new long[BoardUtils.NUM_TILES];
+    private static final int[] ROOK_SHIFTS = new int[BoardUtils.NUM_TILES];
+    private static final long[][] ROOK_ATTACKS = new long[BoardUtils.NUM_TILES][];
+
+    private static final long[] BISHOP_MASKS = new long[BoardUtils.NUM_TILES];
+    private static final long[] BISHOP_MAGICS = new long[BoardUtils.NUM_TILES];
+    private static final int[] BISHOP_SHIFTS = new int[BoardUtils.NUM_TILES];
+    private static final long[][] BISHOP_ATTACKS = new long[BoardUtils.NUM_TILES][];
+
+    // the squares strictly between two squares on a rank, file or diagonal, and the whole line through them (empty if not aligned)
+    private static final long[][] BETWEEN = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+    private static final long[][] LINE = new long[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+
+    static {
+        final Random random = new Random(0x5EED5L);
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++){
+            initSquare(square, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_ATTACKS, random);
+            initSquare(square, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_ATTACKS, random);
+        }
+        for (int from = 0; from < BoardUtils.NUM_TILES; from++){
+            for (int to = 0; to < BoardUtils.NUM_TILES; to++){
+                initLine(from, to);
+            }
+        }
+    }
+
+    private SlidingAttacks(){
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    public static long rookAttacks(final int square, final long occupied){
+        return ROOK_ATTACKS[square][(int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    public static long bishopAttacks(final int square, final long occupied){
+        return BISHOP_ATTACKS[square][(int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    public static long queenAttacks(final int square, final long occupied){
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    public static long between(final int from, final int to){
+        return BETWEEN[from][to];
+    }
+
+    public static long line(final int from, final int to){
+        return LINE[from][to];
+    }
+
+    // two squares are aligned when each one is on the other's empty board rays, the squares between are where those rays cross
+    private static void initLine(final int from, final int to){
+        if (from == to){
+            return;
+        }
+        final long fromMask = BitBoard.squareMask(from);
+        final long toMask = BitBoard.squareMask(to);
+        if ((rookAttacks(from, 0L) & toMask) != 0){
+            BETWEEN[from][to] = rookAttacks(from, toMask) & rookAttacks(to, fromMask);
+            LINE[from][to] = (rookAttacks(from, 0L) & rookAttacks(to, 0L)) | fromMask | toMask;
+        } else if ((bishopAttacks(from, 0L) & toMask) != 0){
+            BETWEEN[from][to] = bishopAttacks(from, toMask) & bishopAttacks(to, fromMask);
+            LINE[from][to] = (bishopAttacks(from, 0L) & bishopAttacks(to, 0L)) | fromMask | toMask;
+        }
+    }
+
+    private static void initSquare(final int square, final int[][] directions, final long[] masks,
+                                   final long[] magics, final int[] shifts, final long[][] attacks, final Random random){
+        final long mask = relevantOccupancyMask(square, directions);
+        final int bits = Long.bitCount(mask);
+        final int size = 1 << bits;
+
+        // enumerate every subset of the mask (carry rippler) with the attacks it produces
+        final long[] occupancies = new long[size];
+        final long[] references = new long[size];
+        long subset = 0L;
+        for (int i = 0; i < size; i++){
+            occupancies[i] = subset;
+            references[i] = slidingAttacks(square, subset, directions);
+            subset = (subset - mask) & mask;
+        }
+
+        final long[] table = new long[size];
+        final int shift = 64 - bits;
+        while (true){
+            final long magic = random.nextLong() & random.nextLong() & random.nextLong();
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6){
+                continue;
+            }
+            if (fillTable(table, occupancies, references, magic, shift)){
+                masks[square] = mask;
+                magics[square] = magic;
+                shifts[square] = shift;
+                attacks[square] = table;
+                return;
+            }
+        }
+    }
+
+    // a magic works when no two occupancies with different attacks share a table slot
+    private static boolean fillTable(final long[] table, final long[] occupancies, final long[] references,
+                                     final long magic, final int shift){
+        final boolean[] used = new boolean[table.length];
+        for (int i = 0; i < occupancies.length; i++){
+            final int index = (int) ((occupancies[i] * magic) >>> shift);
+            if (!used[index]){
+                used[index] = true;
+                table[index] = references[i];
+            } else if (table[index] != references[i]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // the squares a slider can be blocked on, the last square of every ray never matters
+    private static long relevantOccupancyMask(final int square, final int[][] directions){
+        long mask = 0L;
+        for (final int[] direction : directions){
+            int row = square / 8 + direction[0];
+            int column = square % 8 + direction[1];
+            while (isOnBoard(row + direction[0], column + direction[1])){
+                mask |= BitBoard.squareMask(row * 8 + column);
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    // walk every ray until it leaves the board or hits a piece (the blocking square is included)
+    private static long slidingAttacks(final int square, final long occupied, final int[][] directions){
+        long attacks = 0L;
+        for (final int[] direction : directions){
+            int row = square / 8 + direction[0];
+            int column = square % 8 + direction[1];
+            while (isOnBoard(row, column)){
+                final long mask = BitBoard.squareMask(row * 8 + column);
+                attacks |= mask;
+                if ((occupied & mask) != 0){
+                    break;
+                }
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static boolean isOnBoard(final int row, final int column){
+        return row >= 0 && row < 8 && column >= 0 && column < 8;
+    }
+}
@@ -4,7 +4,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.pieces.PieceUtils;
 
 public abstract class Tile{
 
@@ -13,13 +17,29 @@ public abstract class Tile{
 
     private static final Map<Integer, EmptyTile> EMPTY_TILES_CACHE = createAllEmptyTiles();
 
+    // one occupied tile for every cached piece (see PieceUtils), [piece index][square][isFirstMove] and [alliance][square][king state]
+    private static final OccupiedTile[][][] OCCUPIED_TILES_CACHE = createAllOccupiedTiles();
+    private static final OccupiedTile[][][] KING_TILES_CACHE = createAllKingTiles();
+
     private Tile(int tileCoordinate){
         this.tileCoordinate = tileCoordinate;
     }
     
     // factory method to create a tile from outside this class
     public static Tile createTile(final int tileCoordinate, final Piece piece){
-        return piece != null ? new OccupiedTile(tileCoordinate, piece) : EMPTY_TILES_CACHE.get(tileCoordinate);
+        if (piece == null){
+            return EMPTY_TILES_CACHE.get(tileCoordinate);
+        }
+        // pieces built outside PieceUtils still get a tile of their own
+        final OccupiedTile cachedTile = getCachedTile(piece);
+        return cachedTile.getPiece() == piece ? cachedTile : new OccupiedTile(tileCoordinate, piece);
+    }
+
+    private static OccupiedTile getCachedTile(final Piece piece){
+        if (piece.getPieceType().isKing()){
+            return KING_TILES_CACHE[piece.getPieceAlliance().ordinal()][piece.getPiecePosition()][PieceUtils.kingStateIndex((King) piece)];
+        }
+        return OCCUPIED_TILES_CACHE[BitBoard.pieceIndex(piece.getPieceAlliance(), piece.getPieceType())][piece.getPiecePosition()][piece.isFirstMove() ? 1 : 0];
     }
 
     private static Map<Integer, EmptyTile> createAllEmptyTiles() {
@@ -30,6 +50,35 @@ public abstract class Tile{
         return Collections.unmodifiableMap(emptyTileMap);
     }
 
+    private static OccupiedTile[][][] createAllOccupiedTiles(){
+        final OccupiedTile[][][] tiles = new OccupiedTile[2 * BitBoard.NUM_PIECE_TYPES][BoardUtils.NUM_TILES][2];
+        for (final Alliance alliance : Alliance.values()){
+            for (final PieceType pieceType : PieceType.values()){
+                if (pieceType.isKing()){
+                    continue;
+                }
+                for (int i = 0; i < BoardUtils.NUM_TILES; i++){
+                    tiles[BitBoard.pieceIndex(alliance, pieceType)][i][0] = new OccupiedTile(i, PieceUtils.getPiece(pieceType, alliance, i, false));
+                    tiles[BitBoard.pieceIndex(alliance, pieceType)][i][1] = new OccupiedTile(i, PieceUtils.getPiece(pieceType, alliance, i, true));
+                }
+            }
+        }
+        return tiles;
+    }
+
+    private static OccupiedTile[][][] createAllKingTiles(){
+        final OccupiedTile[][][] tiles = new OccupiedTile[2][BoardUtils.NUM_TILES][PieceUtils.NUM_KING_STATES];
+        for (final Alliance alliance : Alliance.values()){
+            for (int i = 0; i < BoardUtils.NUM_TILES; i++){
+                for (int state = 0; state < PieceUtils.NUM_KING_STATES; state++){
+                    tiles[alliance.ordinal()][i][state] = new OccupiedTile(i, PieceUtils.getKing(alliance, i, (state & 1) != 0, (state & 2) != 0,
+                                                                                                 (state & 4) != 0, (state & 8) != 0));
+                }
+            }
+        }
+        return tiles;
+    }
+
 
     public abstract boolean isTileOccupied();
 
@@ -0,0 +1,74 @@
+package com.chess.engine.board;
+
+import java.util.Random;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+
+/*
+ * Zobrist keys: a random 64 bit number for every piece on every square, for black to move,
+ * for every combination of castling rights (see SearchBoard) and for the file of the enpassant square
+ * The hash of a position is the xor of the keys that apply to it, so a move only xors out what it removes and xors in what it adds
+ * The keys come from a fixed seed so hashes are the same on every run
+ */
+
+public final class Zobrist {
+
+    private static final long[][] PIECE_KEYS = new long[2 * BitBoard.NUM_PIECE_TYPES][BoardUtils.NUM_TILES];
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        final Random random = new Random(0x2F0B215AL);
+        for (final long[] keys : PIECE_KEYS){
+            for (int square = 0; square < BoardUtils.NUM_TILES; square++){
+                keys[square] = random.nextLong();
+            }
+        }
+        // no castling rights adds nothing to the hash
+        for (int castlingRights = 1; castlingRights < CASTLING_KEYS.length; castlingRights++){
+            CASTLING_KEYS[castlingRights] = random.nextLong();
+        }
+        for (int file = 0; file < EN_PASSANT_KEYS.length; file++){
+            EN_PASSANT_KEYS[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE_KEY = random.nextLong();
+    }
+
+    private Zobrist(){
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    // piece is BitBoard.pieceIndex(alliance, pieceType)
+    public static long pieceKey(final int piece, final int square){
+        return PIECE_KEYS[piece][square];
+    }
+
+    public static long pieceKey(final Piece piece){
+        return PIECE_KEYS[BitBoard.pieceIndex(piece.getPieceAlliance(), piece.getPieceType())][piece.getPiecePosition()];
+    }
+
+    public static long sideToMoveKey(final Alliance sideToMove){
+        return sideToMove.isBlack() ? BLACK_TO_MOVE_KEY : 0L;
+    }
+
+    public static long castlingKey(final int castlingRights){
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    // square is the square the pawn jumped over, or SearchBoard.NO_SQUARE
+    public static long enPassantKey(final int square){
+        return square == SearchBoard.NO_SQUARE ? 0L : EN_PASSANT_KEYS[square % 8];
+    }
+
+    // the hash of a board worked out from scratch, the boards themselves build theirs up as pieces are placed
+    public static long calculateHash(final Board board){
+        long hash = 0L;
+        for (final Piece piece : board.getAllPieces()){
+            hash ^= pieceKey(piece);
+        }
+        return hash ^ sideToMoveKey(board.currentPlayer().getAlliance()) ^
+               castlingKey(SearchBoard.calculateCastlingRights(board)) ^ enPassantKey(board.getEnPassantSquare());
+    }
+}
@@ -1,19 +1,14 @@
 package com.chess.engine.pieces;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Move.*;
-import com.chess.engine.board.Tile;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.LeaperAttacks;
 
 public class Knight extends Piece {
 
-    private final static int[] CANDIDATE_MOVE_COORDINATES = {-17, -15, -10, -6, 6, 10, 15, 17};
-    
     public Knight(final int piecePosition, final Alliance pieceAlliance) {
         super(piecePosition, pieceAlliance, PieceType.KNIGHT, true);
     }
@@ -29,59 +24,11 @@ public class Knight extends Piece {
 
     @Override
     public Piece movePiece(Move move) {
-        return new Knight(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return PieceUtils.getKnight(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate(), false);
     }
 
     @Override
     public List<Move> calculateLegalMoves(Board board){
-        int candidateDestinationCoordinate;
-        final List<Move> legalMoves = new ArrayList<>();
-        for (int currentCandidateOffset : CANDIDATE_MOVE_COORDINATES){
-            candidateDestinationCoordinate = this.piecePosition + currentCandidateOffset;
-
-            if (BoardUtils.isValidCoordinate(candidateDestinationCoordinate)){
-                
-                if (isFirstColumnExclusion(this.piecePosition, currentCandidateOffset) ||
-                    isSecondColumnExclusion(this.piecePosition, currentCandidateOffset) ||
-                    isSeventhColumnExclusion(this.piecePosition, currentCandidateOffset) ||
-                    isEigthColumnExclusion(this.piecePosition, currentCandidateOffset)
-                ){
-                    continue;
-                }
-                
-                final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
-                
-                if (!candidateDestinationTile.isTileOccupied()){
-                    legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
-                }else{
-                    final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                    if (pieceAtDestination.getPieceAlliance() != this.pieceAlliance){
-                        legalMoves.add(new MajorAttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
-                    }
-                }
-            }
-
-        }
-        return legalMoves;
-    }
-
-    private static boolean isFirstColumnExclusion(int currentPosition, int candidateOffset){
-        // cannot move towards the left if in the first column
-        return BoardUtils.FIRST_COLUMN[currentPosition] && (candidateOffset == -17 || candidateOffset == -10 || candidateOffset == 6 || candidateOffset == 15);
-    }
-
-    private static boolean isSecondColumnExclusion(int currentPosition, int candidateOffset){
-        // cannot move towards the left (two squares) if in the second column
-        return BoardUtils.SECOND_COLUMN[currentPosition] && (candidateOffset == -10 || candidateOffset == 6);
-    }
-
-    private static boolean isSeventhColumnExclusion(int currentPosition, int candidateOffset){
-        // cannot move towards the right (two squares) if in the seventh column
-        return BoardUtils.SEVENTH_COLUMN[currentPosition] && (candidateOffset == -6 || candidateOffset == 10);
-    }
-
-    private static boolean isEigthColumnExclusion(int currentPosition, int candidateOffset){
-        // cannot move towards the right if in the eigth column
-        return BoardUtils.EIGTH_COLUMN[currentPosition] && (candidateOffset == -15 || candidateOffset == -6 || candidateOffset == 10 || candidateOffset == 17);
+        return createMajorMoves(board, LeaperAttacks.knightAttacks(this.piecePosition));
     }
 }
\ No newline at end of file
@@ -4,8 +4,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.LeaperAttacks;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Move.PawnAttackMove;
 import com.chess.engine.board.Move.PawnEnPassantAttackMove;
@@ -14,7 +16,8 @@ import com.chess.engine.board.Move.PawnMove;
 import com.chess.engine.board.Move.PawnPromotion;
 
 public class Pawn extends Piece{
-    private final static int[] CANDIDATE_MOVE_COORDINATES = {7, 8, 9, 16};
+
+    private static final PieceType[] PROMOTION_TYPES = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
 
     public Pawn(final int piecePosition, final Alliance pieceAlliance) {
         super(piecePosition, pieceAlliance, PieceType.PAWN, true);
@@ -31,106 +34,65 @@ public class Pawn extends Piece{
 
     @Override
     public Piece movePiece(Move move) {
-        return new Pawn(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), false);
+        return PieceUtils.getPawn(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate(), false);
     }
 
     @Override
     public List<Move> calculateLegalMoves(Board board){
-        int candidateDestinationCoordinate;
         final List<Move> legalMoves = new ArrayList<>();
+        final int forwardCoordinate = this.piecePosition + this.pieceAlliance.getDirection() * 8;
+
+        // move 1 square forward, and 2 squares forward on the first move if both squares are empty
+        if (BoardUtils.isValidCoordinate(forwardCoordinate) && !board.getBitBoard().isOccupied(forwardCoordinate)){
+
+            if (this.pieceAlliance.isPawnPromotionSquare(forwardCoordinate)){
+                addPromotions(legalMoves, new PawnMove(board, this, forwardCoordinate));
+            }else{
+                legalMoves.add(new PawnMove(board, this, forwardCoordinate));
+            }
 
-        for (final int currentCandidateOffset: CANDIDATE_MOVE_COORDINATES){
-            candidateDestinationCoordinate = this.piecePosition + (this.getPieceAlliance().getDirection()) * (currentCandidateOffset);
-            if (!BoardUtils.isValidCoordinate(candidateDestinationCoordinate)){
-                continue;
+            final int jumpCoordinate = forwardCoordinate + this.pieceAlliance.getDirection() * 8;
+            if (this.isFirstMove() && BoardUtils.isValidCoordinate(jumpCoordinate) && !board.getBitBoard().isOccupied(jumpCoordinate)){
+                legalMoves.add(new PawnJump(board, this, jumpCoordinate));
             }
-            // move 1 square forward
-            if (currentCandidateOffset == 8 && !board.getTile(candidateDestinationCoordinate).isTileOccupied()){
-                
-                if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)){
-                    legalMoves.add(new PawnPromotion(new PawnMove(board, this, candidateDestinationCoordinate), new Queen(candidateDestinationCoordinate, this.pieceAlliance, false)));
-                }else{
-                    legalMoves.add(new PawnMove(board, this, candidateDestinationCoordinate));
-                }
-
-            } 
-            // move 2 squares forward
-            else if (currentCandidateOffset == 16 && 
-                        this.isFirstMove() 
-            ){
-                
-                int behindCandidateDestinationCoordinate = this.piecePosition + this.pieceAlliance.getDirection() * 8;
-                
-                if (!board.getTile(behindCandidateDestinationCoordinate).isTileOccupied() && 
-                    !board.getTile(candidateDestinationCoordinate).isTileOccupied()){
-                    legalMoves.add(new PawnJump(board, this, candidateDestinationCoordinate)); 
-                }
-
-            }else if (currentCandidateOffset == 7 &&
-                    !((BoardUtils.EIGTH_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite()) ||
-                    (BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack()))
-            ){
-                
-                if (board.getTile(candidateDestinationCoordinate).isTileOccupied()){
-                    
-                    final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
-                    
-                    if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()){
-                        
-                        if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)){
-                            legalMoves.add(new PawnPromotion(new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate), new Queen(candidateDestinationCoordinate, this.pieceAlliance, false)));
-                        }else{
-                            legalMoves.add(new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-                        }
-                    }
-
-                }else if (board.getEnPassantPawn() != null){
-                    
-                    // if position of enpassant pawn is next to our pawn, +1 for white, -1 for black (for offset of 7)
-                    if (board.getEnPassantPawn().getPiecePosition() == (this.piecePosition + this.pieceAlliance.getOppositeDirection())){
-                        final Piece pieceOnCandidate = board.getEnPassantPawn();
-                        if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()){
-                            legalMoves.add(new PawnEnPassantAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-                        }
-                    }
-
-                }
-            }else if (currentCandidateOffset == 9 &&
-                    !((BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite()) ||
-                    (BoardUtils.EIGTH_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack()))
-            ){
-                if (board.getTile(candidateDestinationCoordinate).isTileOccupied()){
-                    
-                    final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
-                    
-                    if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()){
-                        
-                        if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)){
-                            /* TODO this is some technical debt, we need to fix this 
-                             * we can create a new PawnPromotion object, but we are never using it anyways
-                             * The pawnPromotion move is created again in the table class (gui) when the user selects the promotion piece
-                             * when we calculate the legal moves for highlighting purposes in Table.java, it is more convenient to have this not be a pawnpromotion move
-                             * and so we just create a pawnAttackMove or a pawnMove, and then create a new PawnPromotion object in the Table.java class
-                            */
-                            legalMoves.add(new PawnPromotion(new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate), new Queen(candidateDestinationCoordinate, this.pieceAlliance, false)));
-                        }else{
-                            legalMoves.add(new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-                        }
-
-                    }
-
-                }else if (board.getEnPassantPawn() != null){
-                    
-                    // if position of enpassant pawn is next to our pawn, -1 for white, +1 for black (for offset of 9)
-                    if (board.getEnPassantPawn().getPiecePosition() == (this.piecePosition - this.pieceAlliance.getOppositeDirection())){
-                        final Piece pieceOnCandidate = board.getEnPassantPawn();
-                        if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()){
-                            legalMoves.add(new PawnEnPassantAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-                        }
-                    }
-                }
+        }
+
+        // the capture table already knows which diagonals stay on the board
+        final long attacks = LeaperAttacks.pawnAttacks(this.pieceAlliance, this.piecePosition);
+        long captures = attacks & board.getBitBoard().getAlliancePieces(this.pieceAlliance.getOpposite());
+        while (captures != 0){
+            final int candidateDestinationCoordinate = BitBoard.firstSquare(captures);
+            captures &= captures - 1;
+            final Piece pieceOnCandidate = board.getPiece(candidateDestinationCoordinate);
+
+            if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)){
+                /* TODO this is some technical debt, we need to fix this 
+                 * we can create a new PawnPromotion object, but we are never using it anyways
+                 * The pawnPromotion move is created again in the table class (gui) when the user selects the promotion piece
+                 * when we calculate the legal moves for highlighting purposes in Table.java, it is more convenient to have this not be a pawnpromotion move
+                 * and so we just create a pawnAttackMove or a pawnMove, and then create a new PawnPromotion object in the Table.java class
+                */
+                addPromotions(legalMoves, new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
+            }else{
+                legalMoves.add(new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
+            }
+        }
+
+        // the enpassant pawn can be taken on the square it jumped over, which we can only attack if the pawns are side by side
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if (enPassantPawn != null && enPassantPawn.getPieceAlliance() != this.pieceAlliance){
+            final int enPassantCoordinate = enPassantPawn.getPiecePosition() + this.pieceAlliance.getDirection() * 8;
+            if ((attacks & BitBoard.squareMask(enPassantCoordinate)) != 0){
+                legalMoves.add(new PawnEnPassantAttackMove(board, this, enPassantCoordinate, enPassantPawn));
             }
         }
         return legalMoves;
     }
+
+    // a pawn reaching the last rank can become any of these, the queen comes first since it is almost always the best
+    private void addPromotions(final List<Move> legalMoves, final Move pawnMove){
+        for (final PieceType promotionType : PROMOTION_TYPES){
+            legalMoves.add(new PawnPromotion(pawnMove, PieceUtils.getPiece(promotionType, this.pieceAlliance, pawnMove.getDestinationCoordinate(), false)));
+        }
+    }
 }
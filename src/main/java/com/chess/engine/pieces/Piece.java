@@ -1,9 +1,14 @@
 package com.chess.engine.pieces;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MajorAttackMove;
+import com.chess.engine.board.Move.MajorMove;
 import com.chess.engine.board.Board;
 
 public abstract class Piece {
@@ -75,6 +80,23 @@ public abstract class Piece {
     // Given a board, calculate all the legal moves for this piece
     public abstract Collection<Move> calculateLegalMoves(final Board board);
 
+    // turns a mask of destination squares into moves, squares held by our own pieces are dropped
+    protected List<Move> createMajorMoves(final Board board, final long destinations){
+        final List<Move> legalMoves = new ArrayList<>();
+        long candidateDestinations = destinations & ~board.getBitBoard().getAlliancePieces(this.pieceAlliance);
+        while (candidateDestinations != 0){
+            final int candidateDestinationCoordinate = BitBoard.firstSquare(candidateDestinations);
+            candidateDestinations &= candidateDestinations - 1;
+            final Piece pieceAtDestination = board.getPiece(candidateDestinationCoordinate);
+            if (pieceAtDestination == null){
+                legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
+            }else{
+                legalMoves.add(new MajorAttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
+            }
+        }
+        return legalMoves;
+    }
+
     // This enum represents the type of piece, value of piece, and whether it is a king
     public enum PieceType{
         PAWN("P", 100) {
@@ -0,0 +1,98 @@
+package com.chess.engine.pieces;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/*
+ * Pieces are immutable, so there only ever needs to be one instance of each piece in each state
+ * Every (type, alliance, square, isFirstMove) piece is built once here, kings also by their castling state,
+ * and moving a piece returns one of these instead of allocating a new one
+ */
+
+public final class PieceUtils {
+
+    private static final Alliance[] ALLIANCES = Alliance.values();
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    public static final int NUM_KING_STATES = 16;
+
+    // [alliance][piece type][square][isFirstMove], the king slots are left empty
+    private static final Piece[][][][] PIECES = createAllPieces();
+    // [alliance][square][king state], see kingStateIndex
+    private static final King[][][] KINGS = createAllKings();
+
+    private PieceUtils(){
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    // any piece but a king
+    public static Piece getPiece(final PieceType pieceType, final Alliance alliance, final int square, final boolean isFirstMove){
+        return PIECES[alliance.ordinal()][pieceType.ordinal()][square][isFirstMove ? 1 : 0];
+    }
+
+    public static Pawn getPawn(final Alliance alliance, final int square, final boolean isFirstMove){
+        return (Pawn) getPiece(PieceType.PAWN, alliance, square, isFirstMove);
+    }
+
+    public static Knight getKnight(final Alliance alliance, final int square, final boolean isFirstMove){
+        return (Knight) getPiece(PieceType.KNIGHT, alliance, square, isFirstMove);
+    }
+
+    public static Bishop getBishop(final Alliance alliance, final int square, final boolean isFirstMove){
+        return (Bishop) getPiece(PieceType.BISHOP, alliance, square, isFirstMove);
+    }
+
+    public static Rook getRook(final Alliance alliance, final int square, final boolean isFirstMove){
+        return (Rook) getPiece(PieceType.ROOK, alliance, square, isFirstMove);
+    }
+
+    public static Queen getQueen(final Alliance alliance, final int square, final boolean isFirstMove){
+        return (Queen) getPiece(PieceType.QUEEN, alliance, square, isFirstMove);
+    }
+
+    public static King getKing(final Alliance alliance, final int square, final boolean isFirstMove, final boolean isCastled,
+                               final boolean kingSideCastleCapable, final boolean queenSideCastleCapable){
+        return KINGS[alliance.ordinal()][square][kingStateIndex(isFirstMove, isCastled, kingSideCastleCapable, queenSideCastleCapable)];
+    }
+
+    public static int kingStateIndex(final boolean isFirstMove, final boolean isCastled,
+                                     final boolean kingSideCastleCapable, final boolean queenSideCastleCapable){
+        return (isFirstMove ? 1 : 0) | (isCastled ? 2 : 0) | (kingSideCastleCapable ? 4 : 0) | (queenSideCastleCapable ? 8 : 0);
+    }
+
+    public static int kingStateIndex(final King king){
+        return kingStateIndex(king.isFirstMove(), king.isCastled(), king.isKingSideCastleCapable(), king.isQueenSideCastleCapable());
+    }
+
+    private static Piece[][][][] createAllPieces(){
+        final Piece[][][][] pieces = new Piece[ALLIANCES.length][PIECE_TYPES.length][BoardUtils.NUM_TILES][2];
+        for (final Alliance alliance : ALLIANCES){
+            final Piece[][][] byType = pieces[alliance.ordinal()];
+            for (int square = 0; square < BoardUtils.NUM_TILES; square++){
+                for (final boolean isFirstMove : new boolean[]{false, true}){
+                    final int firstMove = isFirstMove ? 1 : 0;
+                    byType[PieceType.PAWN.ordinal()][square][firstMove] = new Pawn(square, alliance, isFirstMove);
+                    byType[PieceType.KNIGHT.ordinal()][square][firstMove] = new Knight(square, alliance, isFirstMove);
+                    byType[PieceType.BISHOP.ordinal()][square][firstMove] = new Bishop(square, alliance, isFirstMove);
+                    byType[PieceType.ROOK.ordinal()][square][firstMove] = new Rook(square, alliance, isFirstMove);
+                    byType[PieceType.QUEEN.ordinal()][square][firstMove] = new Queen(square, alliance, isFirstMove);
+                }
+            }
+        }
+        return pieces;
+    }
+
+    private static King[][][] createAllKings(){
+        final King[][][] kings = new King[ALLIANCES.length][BoardUtils.NUM_TILES][NUM_KING_STATES];
+        for (final Alliance alliance : ALLIANCES){
+            for (int square = 0; square < BoardUtils.NUM_TILES; square++){
+                for (int state = 0; state < NUM_KING_STATES; state++){
+                    kings[alliance.ordinal()][square][state] = new King(square, alliance, (state & 1) != 0, (state & 2) != 0,
+                                                                         (state & 4) != 0, (state & 8) != 0);
+                }
+            }
+        }
+        return kings;
+    }
+}
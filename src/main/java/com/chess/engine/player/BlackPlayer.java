@@ -17,8 +17,8 @@ import com.chess.engine.pieces.Rook;
 import com.chess.engine.pieces.Piece.PieceType;
 
 public class BlackPlayer extends Player {
-    public BlackPlayer(Board board, Collection<Move> whiteStandardLegalMoves, Collection<Move> blackStandardLegalMoves){
-        super(board, blackStandardLegalMoves, whiteStandardLegalMoves);
+    public BlackPlayer(Board board){
+        super(board);
     }
 
     @Override
@@ -31,6 +31,11 @@ public class BlackPlayer extends Player {
         return Alliance.BLACK;
     }
 
+    @Override
+    public String toString() {
+        return "Black";
+    }
+
     @Override
     public Player getOpponent() {
         return this.board.whitePlayer();
@@ -46,7 +51,7 @@ public class BlackPlayer extends Player {
      */
 
     @Override
-    protected Collection<Move> calculateKingCastles(Collection<Move> playerLegals, Collection<Move> opponentLegals) {
+    protected Collection<Move> calculateKingCastles(Collection<Move> playerLegals) {
         final List<Move> kingCastles = new ArrayList<>();
 
         if (this.playerKing.isFirstMove() && this.playerKing.getPiecePosition() == 4 && !this.isInCheck()) {
@@ -54,9 +59,9 @@ public class BlackPlayer extends Player {
             if (this.board.getPiece(5) == null && this.board.getPiece(6) == null) {
                 final Piece kingSideRook = this.board.getPiece(7);
                 if (kingSideRook != null && kingSideRook.isFirstMove() &&
-                        Player.calculateAttacksOnTile(5, opponentLegals).isEmpty() &&
-                        Player.calculateAttacksOnTile(6, opponentLegals).isEmpty() &&
-                        kingSideRook.getPieceType() == PieceType.ROOK) {
+                        !isTileAttacked(5) &&
+                        !isTileAttacked(6) &&
+                        kingSideRook.getPieceType() == PieceType.ROOK && kingSideRook.getPieceAlliance() == getAlliance()) {
                     if (!BoardUtils.isKingPawnTrap(this.board, this.playerKing, 12)) {
                         kingCastles.add(
                                 new KingSideCastleMove(this.board, this.playerKing, 6, (Rook) kingSideRook, kingSideRook.getPiecePosition(), 5));
@@ -69,9 +74,9 @@ public class BlackPlayer extends Player {
                     this.board.getPiece(3) == null) {
                 final Piece queenSideRook = this.board.getPiece(0);
                 if (queenSideRook != null && queenSideRook.isFirstMove() &&
-                        Player.calculateAttacksOnTile(2, opponentLegals).isEmpty() &&
-                        Player.calculateAttacksOnTile(3, opponentLegals).isEmpty() &&
-                        queenSideRook.getPieceType() == PieceType.ROOK) {
+                        !isTileAttacked(2) &&
+                        !isTileAttacked(3) &&
+                        queenSideRook.getPieceType() == PieceType.ROOK && queenSideRook.getPieceAlliance() == getAlliance()) {
                     if (!BoardUtils.isKingPawnTrap(this.board, this.playerKing, 12)) {
                         kingCastles.add(
                                 new QueenSideCastleMove(this.board, this.playerKing, 2, (Rook) queenSideRook, queenSideRook.getPiecePosition(), 3));
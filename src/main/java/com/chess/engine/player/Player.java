@@ -1,42 +1,65 @@
 package com.chess.engine.player;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
 import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.LegalMoveFilter;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.PawnPromotion;
 import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
 
 public abstract class Player {
 
     // a player needs a board, a king, set of legal moves and needs to know if he is in check
     protected final Board board; 
     protected final King playerKing;
-    protected final Collection<Move> legalMoves;
-    private final boolean isInCheck;
 
-    Player(Board board, Collection<Move> legalMoves, Collection<Move> opponentMoves){
+    // the legal moves and the check status are worked out on first use and then cached (see Board)
+    private Collection<Move> legalMoves;
+    private Collection<Move> fullyLegalMoves;
+    private LegalMoveFilter legalMoveFilter;
+    private Boolean isInCheck;
+    // the legal moves grouped by the square they start from: the moves from square i are movesByOrigin[originOffsets[i]] up to
+    // movesByOrigin[originOffsets[i + 1]], built the first time a move is looked up by its coordinates
+    private int[] originOffsets;
+    private Move[] movesByOrigin;
+
+    Player(Board board){
         this.board = board;
         this.playerKing = establishKing();
-        List<Move> allLegalMoves = new ArrayList<>();
-        allLegalMoves.addAll(legalMoves);
-        allLegalMoves.addAll(calculateKingCastles(legalMoves, opponentMoves));
-        this.legalMoves = allLegalMoves;
-        this.isInCheck = !Player.calculateAttacksOnTile(this.playerKing.getPiecePosition(), opponentMoves).isEmpty();
-    }
-
-    public static Collection<Move> calculateAttacksOnTile(int piecePosition, Collection<Move> opponentMoves) {
-        final List<Move> attackMoves = new ArrayList<>();
-        for (Move move: opponentMoves){
-            if (piecePosition == move.getDestinationCoordinate()){
-                attackMoves.add(move);
-            }
+    }
+
+    /* The opponent's pieces attacking a tile, answered from the bitboards by looking back from the tile
+     * (see BitBoard.getAttackers), so the opponent's moves never have to be generated
+     */
+    public Collection<Piece> calculateAttacksOnTile(final int tileCoordinate) {
+        final List<Piece> attackers = new ArrayList<>();
+        long attackerMask = getTileAttackers(tileCoordinate);
+        while (attackerMask != 0){
+            attackers.add(this.board.getPiece(BitBoard.firstSquare(attackerMask)));
+            attackerMask &= attackerMask - 1;
         }
 
-        return attackMoves;
+        return attackers;
+    }
+
+    // the same attackers as a bitboard mask, for exchange evaluation and check evasion
+    public long getTileAttackers(final int tileCoordinate) {
+        final BitBoard bitBoard = this.board.getBitBoard();
+        return bitBoard.getAttackers(tileCoordinate, getAlliance().getOpposite(), bitBoard.getOccupied());
+    }
+
+    public boolean isTileAttacked(final int tileCoordinate) {
+        return this.board.getBitBoard().isSquareAttacked(tileCoordinate, getAlliance().getOpposite());
     }
 
     private King establishKing(){
@@ -55,21 +78,23 @@ public abstract class Player {
     }
 
     public boolean isMoveLegal(final Move move){
-        return this.legalMoves.contains(move);
+        return getLegalMoves().contains(move);
     }
 
     public boolean isInCheck(){
-        return isInCheck;
+        if (this.isInCheck == null){
+            this.isInCheck = isTileAttacked(this.playerKing.getPiecePosition());
+        }
+        return this.isInCheck;
     }
 
     public boolean isInCheckMate(){
-        return this.isInCheck && !hasEscapeMoves();
+        return isInCheck() && !hasEscapeMoves();
     }
 
     private boolean hasEscapeMoves() {
-        for (Move move: this.legalMoves){
-            MoveTransition transition = makeMove(move);
-            if (transition.getMoveStatus().isDone()){
+        for (Move move: getLegalMoves()){
+            if (getLegalMoveFilter().isLegal(move)){
                 return true;
             }
         }
@@ -78,20 +103,90 @@ public abstract class Player {
     }
 
     public boolean isInStaleMate(){
-        return !this.isInCheck && !hasEscapeMoves();
+        return !isInCheck() && !hasEscapeMoves();
     }
 
     public boolean isCastled(){
-        return false;
+        return this.playerKing.isCastled();
+    }
+
+    public Move getMove(final int currentCoordinate, final int destinationCoordinate){
+        return getMove(currentCoordinate, destinationCoordinate, null);
+    }
+
+    /* The legal move between two squares, or Move.NULL_MOVE, found among the few moves that start on the square
+     * A pawn reaching the last rank has a promotion for every piece, the promotion type picks one (null takes the first, the queen)
+     */
+    public Move getMove(final int currentCoordinate, final int destinationCoordinate, final PieceType promotionType){
+        if (this.movesByOrigin == null){
+            indexMovesByOrigin();
+        }
+        for (int i = this.originOffsets[currentCoordinate]; i < this.originOffsets[currentCoordinate + 1]; i++){
+            final Move move = this.movesByOrigin[i];
+            if (move.getDestinationCoordinate() == destinationCoordinate &&
+                (promotionType == null || !(move instanceof PawnPromotion) ||
+                 ((PawnPromotion) move).getPromotedPiece().getPieceType() == promotionType)){
+                return move;
+            }
+        }
+        return Move.NULL_MOVE;
+    }
+
+    // a counting sort of the legal moves by origin square, keeping the generation order within each square
+    private void indexMovesByOrigin(){
+        final Collection<Move> moves = getLegalMoves();
+        final int[] offsets = new int[BoardUtils.NUM_TILES + 1];
+        for (final Move move : moves){
+            offsets[move.getCurrentCoordinate() + 1]++;
+        }
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++){
+            offsets[square + 1] += offsets[square];
+        }
+        final int[] next = Arrays.copyOf(offsets, BoardUtils.NUM_TILES);
+        final Move[] sorted = new Move[moves.size()];
+        for (final Move move : moves){
+            sorted[next[move.getCurrentCoordinate()]++] = move;
+        }
+        this.originOffsets = offsets;
+        this.movesByOrigin = sorted;
     }
 
     public Collection<Move> getLegalMoves(){
+        if (this.legalMoves == null){
+            final Collection<Move> standardLegalMoves = this.board.getStandardLegalMoves(getAlliance());
+            final List<Move> allLegalMoves = new ArrayList<>();
+            allLegalMoves.addAll(standardLegalMoves);
+            allLegalMoves.addAll(calculateKingCastles(standardLegalMoves));
+            this.legalMoves = Collections.unmodifiableList(allLegalMoves);
+        }
         return this.legalMoves;
     }
 
+    // the legal moves that do not leave the king in check, found with the pin and check masks instead of executing each move
+    public Collection<Move> getFullyLegalMoves(){
+        if (this.fullyLegalMoves == null){
+            final List<Move> fullyLegalMoves = new ArrayList<>();
+            for (Move move: getLegalMoves()){
+                if (getLegalMoveFilter().isLegal(move)){
+                    fullyLegalMoves.add(move);
+                }
+            }
+            this.fullyLegalMoves = Collections.unmodifiableList(fullyLegalMoves);
+        }
+        return this.fullyLegalMoves;
+    }
+
+    private LegalMoveFilter getLegalMoveFilter(){
+        if (this.legalMoveFilter == null){
+            this.legalMoveFilter = new LegalMoveFilter(this.board.getBitBoard(), getAlliance());
+        }
+        return this.legalMoveFilter;
+    }
+
     public MoveTransition makeMove(Move move){
 
         /* when making a move, check if it is legal, and make sure it doesn't leave the player in check after the move 
+            the pin and check masks answer the second part, so the board is only built for moves that are really made
             If the move is legal, return the new board, with status DONE
         */
 
@@ -99,16 +194,11 @@ public abstract class Player {
             return new MoveTransition(this.board, this.board, move, MoveStatus.ILLEGAL_MOVE);
         }
 
-        Board transitionBoard = move.execute();
-
-        Collection<Move> kingAttacks = Player.calculateAttacksOnTile(transitionBoard.currentPlayer().getOpponent().getPlayerKing().getPiecePosition(),
-         transitionBoard.currentPlayer().getLegalMoves());
-
-        if (!kingAttacks.isEmpty()){
+        if (!getLegalMoveFilter().isLegal(move)){
             return new MoveTransition(this.board, this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
         }
 
-        return new MoveTransition(this.board, transitionBoard, move, MoveStatus.DONE);
+        return new MoveTransition(this.board, move.execute(), move, MoveStatus.DONE);
     }
 
     public boolean isKingSideCastleCapable(){
@@ -131,5 +221,5 @@ public abstract class Player {
     public abstract Player getOpponent();
 
     // a white player and black player will have different king castles
-    protected abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegals, Collection<Move> opponentLegals);
+    protected abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegals);
 }
@@ -18,8 +18,8 @@ import com.chess.engine.pieces.Piece.PieceType;
 
 public class WhitePlayer extends Player {
 
-    public WhitePlayer(Board board, Collection<Move> whiteStandardLegalMoves, Collection<Move> blackStandardLegalMoves){
-        super(board, whiteStandardLegalMoves, blackStandardLegalMoves);
+    public WhitePlayer(Board board){
+        super(board);
     }
 
     @Override
@@ -32,6 +32,11 @@ public class WhitePlayer extends Player {
         return Alliance.WHITE;
     }
 
+    @Override
+    public String toString() {
+        return "White";
+    }
+
     @Override
     public Player getOpponent() {
         return this.board.blackPlayer();
@@ -47,7 +52,7 @@ public class WhitePlayer extends Player {
      */
 
     @Override
-    protected Collection<Move> calculateKingCastles(Collection<Move> playerLegals, Collection<Move> opponentLegals) {
+    protected Collection<Move> calculateKingCastles(Collection<Move> playerLegals) {
         final List<Move> kingCastles = new ArrayList<>();
 
         if(this.playerKing.isFirstMove() && this.playerKing.getPiecePosition() == 60 && !this.isInCheck()) {
@@ -55,9 +60,9 @@ public class WhitePlayer extends Player {
             if(this.board.getPiece(61) == null && this.board.getPiece(62) == null) {
                 final Piece kingSideRook = this.board.getPiece(63);
                 if(kingSideRook != null && kingSideRook.isFirstMove()) {
-                    if(Player.calculateAttacksOnTile(61, opponentLegals).isEmpty() &&
-                       Player.calculateAttacksOnTile(62, opponentLegals).isEmpty() &&
-                       kingSideRook.getPieceType() == PieceType.ROOK) {
+                    if(!isTileAttacked(61) &&
+                       !isTileAttacked(62) &&
+                       kingSideRook.getPieceType() == PieceType.ROOK && kingSideRook.getPieceAlliance() == getAlliance()) {
                         if(!BoardUtils.isKingPawnTrap(this.board, this.playerKing, 52)) {
                             kingCastles.add(new KingSideCastleMove(this.board, this.playerKing, 62, (Rook) kingSideRook, kingSideRook.getPiecePosition(), 61));
                         }
@@ -69,8 +74,8 @@ public class WhitePlayer extends Player {
                this.board.getPiece(57) == null) {
                 final Piece queenSideRook = this.board.getPiece(56);
                 if(queenSideRook != null && queenSideRook.isFirstMove()) {
-                    if(Player.calculateAttacksOnTile(58, opponentLegals).isEmpty() &&
-                       Player.calculateAttacksOnTile(59, opponentLegals).isEmpty() && queenSideRook.getPieceType() == PieceType.ROOK) {
+                    if(!isTileAttacked(58) &&
+                       !isTileAttacked(59) && queenSideRook.getPieceType() == PieceType.ROOK && queenSideRook.getPieceAlliance() == getAlliance()) {
                         if(!BoardUtils.isKingPawnTrap(this.board, this.playerKing, 52)) {
                             kingCastles.add(new QueenSideCastleMove(this.board, this.playerKing, 58, (Rook) queenSideRook, queenSideRook.getPiecePosition(), 59));
                         }
@@ -0,0 +1,521 @@
+package com.chess.engine.player.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.IntMove;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/*
+ * Negamax alpha-beta on a SearchBoard: every node scores the position for the side to move, fail-soft, with mate scores
+ * counting the plies to the mate (MATE_SCORE - ply) and a quiescence search at the leaves
+ * It deepens one ply at a time within the budgets and with the pruning set in the SearchParameters, and plays the best move
+ * of the last iteration it finished. With more than one thread, helper searches share its transposition table (Lazy SMP)
+ */
+
+public class AlphaBeta implements MoveStrategy, AutoCloseable {
+
+    public static final int MATE_SCORE = 1_000_000;
+    public static final int INFINITY = MATE_SCORE + 1;
+    public static final int DRAW_SCORE = 0;
+
+    // how many nodes are searched between looks at the clock
+    private static final int NODES_BETWEEN_TIME_CHECKS = 1024;
+    // the first iterations are too shallow for their scores to be a useful guess
+    private static final int MIN_ASPIRATION_DEPTH = 4;
+    // shallower nodes are cheaper to search than to prune
+    private static final int MIN_NULL_MOVE_DEPTH = 3;
+    private static final int MIN_REDUCTION_DEPTH = 3;
+    // the static score says less the more there is left to search
+    private static final int MAX_FUTILITY_DEPTH = 2;
+    private static final int MAX_REVERSE_FUTILITY_DEPTH = 3;
+    private static final int MAX_RAZORING_DEPTH = 2;
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    private static final int MAIN_THREAD = 0;
+
+    private final BoardEvaluator boardEvaluator;
+    private final SearchParameters searchParameters;
+    private final SearchStack searchStack;
+    // null when the parameters ask for no table
+    private final TranspositionTable transpositionTable;
+    private final int threadId;
+    // set by the main thread once it has its move, the helpers stop on it
+    private final AtomicBoolean stopSignal;
+    private final AlphaBeta[] helpers;
+    // runs the helper searches, null without helpers
+    private final ExecutorService executor;
+    // the noise in a helper's move ordering, null for the main thread
+    private final Random random;
+    private SearchBoard searchBoard;
+
+    private long nodes;
+    private long deadline;
+    private boolean isStopped;
+    private int completedDepth;
+    private int bestMove;
+    private int bestScore;
+    private SearchResult searchResult;
+
+    public AlphaBeta(final int searchDepth) {
+        this(new StandardBoardEvaluator(), SearchParameters.fixedDepth(searchDepth));
+    }
+
+    public AlphaBeta(final SearchParameters searchParameters) {
+        this(new StandardBoardEvaluator(), searchParameters);
+    }
+
+    public AlphaBeta(final BoardEvaluator boardEvaluator, final SearchParameters searchParameters) {
+        this.boardEvaluator = boardEvaluator;
+        this.searchParameters = searchParameters;
+        this.searchStack = new SearchStack();
+        this.transpositionTable = searchParameters.getHashTableSize() > 0 ? new TranspositionTable(searchParameters.getHashTableSize()) : null;
+        this.threadId = MAIN_THREAD;
+        this.stopSignal = new AtomicBoolean();
+        this.helpers = new AlphaBeta[searchParameters.getThreads() - 1];
+        for (int i = 0; i < this.helpers.length; i++) {
+            this.helpers[i] = new AlphaBeta(this, i + 1);
+        }
+        this.executor = this.helpers.length > 0 ? Executors.newFixedThreadPool(this.helpers.length, AlphaBeta::newHelperThread) : null;
+        this.random = null;
+    }
+
+    private AlphaBeta(final AlphaBeta mainThread, final int threadId) {
+        // shared by every thread, so the evaluator must not keep state between calls
+        this.boardEvaluator = mainThread.boardEvaluator;
+        this.searchParameters = mainThread.searchParameters;
+        this.searchStack = new SearchStack();
+        this.transpositionTable = mainThread.transpositionTable;
+        this.threadId = threadId;
+        this.stopSignal = mainThread.stopSignal;
+        this.helpers = new AlphaBeta[0];
+        this.executor = null;
+        this.random = new Random(threadId);
+    }
+
+    // a daemon, so a strategy that is never closed does not keep the JVM alive
+    private static Thread newHelperThread(final Runnable runnable) {
+        final Thread thread = new Thread(runnable, "AlphaBeta helper");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    @Override
+    public Move execute(final Board board) {
+        final long startTime = System.currentTimeMillis();
+        System.out.println(board.currentPlayer() + " THINKING with " + this.searchParameters);
+
+        this.deadline = this.searchParameters.hasTimeLimit() ? startTime + this.searchParameters.getTimeLimitMillis() : Long.MAX_VALUE;
+        if (this.transpositionTable != null) {
+            this.transpositionTable.newSearch();
+        }
+        // every thread gets its own copy of the position here, the Board caches its moves and is not safe to share
+        startSearch(board);
+        for (final AlphaBeta helper : this.helpers) {
+            helper.startSearch(board);
+        }
+        this.stopSignal.set(false);
+
+        final int[] principalVariation;
+        try {
+            final List<Future<int[]>> helperSearches = new ArrayList<>();
+            for (final AlphaBeta helper : this.helpers) {
+                helperSearches.add(this.executor.submit(() -> helper.iterativeDeepening()));
+            }
+            principalVariation = iterativeDeepening();
+            this.stopSignal.set(true);
+            for (final Future<int[]> helperSearch : helperSearches) {
+                awaitHelper(helperSearch);
+            }
+        } finally {
+            this.stopSignal.set(true);
+        }
+
+        final long executionTime = System.currentTimeMillis() - startTime;
+        this.searchResult = new SearchResult(board, principalVariation, this.bestScore, this.completedDepth, getNodes(), executionTime);
+        System.out.println("Execution time: " + executionTime + " ms, depth: " + this.completedDepth + ", nodes: " + getNodes() +
+                           ", best move: " + IntMove.toString(this.bestMove) + ", score: " + this.bestScore);
+        return this.searchResult.getBestMove();
+    }
+
+    private void startSearch(final Board board) {
+        if (this.searchBoard == null) {
+            this.searchBoard = new SearchBoard(board);
+        } else {
+            this.searchBoard.setPosition(board);
+        }
+        this.nodes = 0;
+        this.isStopped = false;
+        this.completedDepth = 0;
+        this.bestMove = IntMove.NO_MOVE;
+        this.bestScore = -INFINITY;
+        this.searchStack.newSearch();
+        if (this.random != null) {
+            this.searchStack.getHistoryTable().addNoise(this.random);
+        }
+    }
+
+    // deepen until the depth, a budget or a stop, the principal variation of the last finished iteration
+    private int[] iterativeDeepening() {
+        int[] principalVariation = new int[0];
+        // odd helpers start one ply deeper and stay one iteration ahead
+        for (int depth = 1 + (this.threadId & 1); depth <= this.searchParameters.getMaxDepth(); depth++) {
+            final int score = aspirationSearch(depth);
+            if (this.isStopped) {
+                break;
+            }
+            this.completedDepth = depth;
+            this.bestScore = score;
+            this.bestMove = this.searchStack.getPrincipalVariationMove(0);
+            principalVariation = this.searchStack.getPrincipalVariation();
+            // no legal moves, or a forced mate that a deeper search can only find again
+            if (this.bestMove == IntMove.NO_MOVE || isMateScore(score)) {
+                break;
+            }
+        }
+        return principalVariation;
+    }
+
+    // a helper failing is a bug in the search, it is passed on rather than hidden behind the main thread's move
+    private static void awaitHelper(final Future<int[]> helperSearch) {
+        try {
+            helperSearch.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a helper search", e);
+        } catch (final ExecutionException e) {
+            throw new RuntimeException("Helper search failed", e.getCause());
+        }
+    }
+
+    // the root search of one iteration, starting with a window around the last iteration's score when it is worth guessing
+    private int aspirationSearch(final int depth) {
+        int window = this.searchParameters.getAspirationWindow();
+        if (window == 0 || depth < MIN_ASPIRATION_DEPTH || isMateScore(this.bestScore)) {
+            return search(depth, -INFINITY, INFINITY);
+        }
+        int alpha = Math.max(this.bestScore - window, -INFINITY);
+        int beta = Math.min(this.bestScore + window, INFINITY);
+        while (true) {
+            final int score = search(depth, alpha, beta);
+            if (this.isStopped) {
+                return score;
+            }
+            // fail-soft, so the score says how far outside the window the real one is
+            if (score <= alpha) {
+                alpha = Math.max(score - window, -INFINITY);
+            } else if (score >= beta) {
+                beta = Math.min(score + window, INFINITY);
+            } else {
+                return score;
+            }
+            window *= 2;
+        }
+    }
+
+    private int search(final int depth, int alpha, final int beta) {
+        if (depth == 0) {
+            return quiescence(alpha, beta);
+        }
+        final int ply = this.searchBoard.getPly();
+        this.searchStack.clearPrincipalVariation(ply);
+        this.nodes++;
+        if (shouldStop()) {
+            return DRAW_SCORE;
+        }
+        if (ply == SearchStack.MAX_PLY - 1) {
+            return evaluate();
+        }
+
+        // the root tries the best move of the last iteration first
+        int hashMove = ply == 0 ? this.bestMove : IntMove.NO_MOVE;
+        if (this.transpositionTable != null) {
+            final long entry = this.transpositionTable.probe(this.searchBoard.getZobristHash());
+            if (entry != 0) {
+                if (TranspositionTable.getMove(entry) != IntMove.NO_MOVE) {
+                    hashMove = TranspositionTable.getMove(entry);
+                }
+                if (ply > 0 && TranspositionTable.getDepth(entry) >= depth) {
+                    final int score = TranspositionTable.getScore(entry, ply);
+                    final int bound = TranspositionTable.getBound(entry);
+                    if (bound == TranspositionTable.EXACT ||
+                        bound == TranspositionTable.LOWER_BOUND && score >= beta ||
+                        bound == TranspositionTable.UPPER_BOUND && score <= alpha) {
+                        return score;
+                    }
+                }
+            }
+        }
+
+        final boolean isInCheck = this.searchBoard.isInCheck();
+        final boolean isPrincipalVariationNode = beta - alpha > 1;
+        // the pruning below trusts the static score, which means nothing in check and is not trusted on the principal variation
+        final boolean canPrune = !isPrincipalVariationNode && !isInCheck && ply > 0;
+        final int staticScore = canPrune ? evaluate() : -INFINITY;
+
+        // reverse futility: even a margin per ply below the static score beats beta
+        if (canPrune && this.searchParameters.isReverseFutilityPruning() && depth <= MAX_REVERSE_FUTILITY_DEPTH &&
+            !isMateScore(beta)) {
+            final int score = staticScore - this.searchParameters.getReverseFutilityMargin() * depth;
+            if (score >= beta) {
+                return score;
+            }
+        }
+
+        // razoring: a margin per ply above the static score still misses alpha, only the captures could help
+        if (canPrune && this.searchParameters.isRazoring() && depth <= MAX_RAZORING_DEPTH &&
+            staticScore + this.searchParameters.getRazoringMargin() * depth <= alpha && !isMateScore(alpha)) {
+            final int score = quiescence(alpha, beta);
+            if (this.isStopped) {
+                return DRAW_SCORE;
+            }
+            // one ply from the leaves the captures are all that could have helped, further up only a fail low is trusted
+            if (depth == 1 || score <= alpha) {
+                return score;
+            }
+            this.searchStack.clearPrincipalVariation(ply);
+        }
+
+        // null move: if passing still fails high a real move almost certainly would, never twice in a row
+        // and never with only pawns left, where passing can be better than any move (zugzwang)
+        if (canPrune && this.searchParameters.isNullMovePruning() && depth >= MIN_NULL_MOVE_DEPTH &&
+            this.searchBoard.getLastMove() != IntMove.NO_MOVE &&
+            this.searchBoard.hasNonPawnMaterial(this.searchBoard.getSideToMove()) && staticScore >= beta) {
+            this.searchBoard.makeNullMove();
+            final int score = -search(Math.max(depth - 1 - this.searchParameters.getNullMoveReduction(), 0), -beta, -beta + 1);
+            this.searchBoard.unmakeNullMove();
+            if (this.isStopped) {
+                return DRAW_SCORE;
+            }
+            if (score >= beta) {
+                // a mate found after passing is not a real one
+                return isMateScore(score) ? beta : score;
+            }
+        }
+
+        final int originalAlpha = alpha;
+        final int firstKiller = this.searchStack.getFirstKiller(ply);
+        final int secondKiller = this.searchStack.getSecondKiller(ply);
+        final MovePicker movePicker = this.searchStack.getMovePicker(ply);
+        movePicker.init(this.searchBoard, hashMove, firstKiller, secondKiller);
+        final boolean isPrincipalVariationSearch = this.searchParameters.isPrincipalVariationSearch();
+        final boolean canReduce = this.searchParameters.isLateMoveReductions() && !isInCheck && depth >= MIN_REDUCTION_DEPTH;
+        final int lateMoveReductionMoves = this.searchParameters.getLateMoveReductionMoves();
+        final int futilityScore = staticScore + this.searchParameters.getFutilityMargin() * depth;
+        final boolean isFutile = canPrune && this.searchParameters.isFutilityPruning() && depth <= MAX_FUTILITY_DEPTH &&
+                                 futilityScore <= alpha && !isMateScore(alpha);
+        int bestScore = -INFINITY;
+        int bestMove = IntMove.NO_MOVE;
+        int moveCount = 0;
+        for (int move = movePicker.nextMove(); move != IntMove.NO_MOVE; move = movePicker.nextMove()) {
+            moveCount++;
+            this.searchBoard.makeMove(move);
+            // the first move is always searched, so a node with legal moves is never mistaken for mate
+            if (isFutile && bestScore != -INFINITY && !IntMove.isCapture(move) && !IntMove.isPromotion(move) &&
+                !this.searchBoard.isInCheck()) {
+                this.searchBoard.unmakeMove();
+                // fail-soft, the skipped move was worth no more than this
+                bestScore = Math.max(bestScore, futilityScore);
+                continue;
+            }
+            int score;
+            if (bestScore == -INFINITY) {
+                score = -search(depth - 1, -beta, -alpha);
+            } else {
+                int reduction = 0;
+                if (canReduce && moveCount > lateMoveReductionMoves && !IntMove.isCapture(move) && !IntMove.isPromotion(move) &&
+                    move != hashMove && move != firstKiller && move != secondKiller && !this.searchBoard.isInCheck()) {
+                    // the later the move, the less likely it is to matter
+                    reduction = moveCount > 2 * lateMoveReductionMoves && depth > MIN_REDUCTION_DEPTH ? 2 : 1;
+                }
+                final int searchBeta = isPrincipalVariationSearch ? alpha + 1 : beta;
+                score = -search(depth - 1 - reduction, -searchBeta, -alpha);
+                // the reduced search beat alpha, it has to be confirmed at full depth
+                if (reduction > 0 && score > alpha && !this.isStopped) {
+                    score = -search(depth - 1, -searchBeta, -alpha);
+                }
+                // better than the first move after all, the null window only gave a bound
+                if (isPrincipalVariationSearch && score > alpha && score < beta && !this.isStopped) {
+                    score = -search(depth - 1, -beta, -alpha);
+                }
+            }
+            this.searchBoard.unmakeMove();
+            if (this.isStopped) {
+                return DRAW_SCORE;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    this.searchStack.updatePrincipalVariation(ply, move);
+                    if (score >= beta) {
+                        // captures and promotions are already tried early, only a quiet move is worth remembering
+                        if (!IntMove.isCapture(move) && !IntMove.isPromotion(move)) {
+                            this.searchStack.storeKiller(ply, move);
+                            this.searchStack.getHistoryTable().update(move, depth);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        if (bestScore == -INFINITY) {
+            // no legal moves: mated (the earlier the worse) or stalemate
+            bestScore = isInCheck ? -MATE_SCORE + ply : DRAW_SCORE;
+        }
+        if (this.transpositionTable != null) {
+            final int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND :
+                              bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+            // a move that failed low is no better than the others, so it is not worth trying first
+            this.transpositionTable.store(this.searchBoard.getZobristHash(), depth, bestScore, bound,
+                                          bound == TranspositionTable.UPPER_BOUND ? IntMove.NO_MOVE : bestMove, ply);
+        }
+        return bestScore;
+    }
+
+    private int quiescence(int alpha, final int beta) {
+        final int ply = this.searchBoard.getPly();
+        this.searchStack.clearPrincipalVariation(ply);
+        this.nodes++;
+        if (shouldStop()) {
+            return DRAW_SCORE;
+        }
+        if (ply == SearchStack.MAX_PLY - 1) {
+            return evaluate();
+        }
+
+        final MovePicker movePicker = this.searchStack.getMovePicker(ply);
+        final boolean isEvading = this.searchParameters.isQuiescenceCheckEvasions() && this.searchBoard.isInCheck();
+        int bestScore = -INFINITY;
+        int standPat = -INFINITY;
+        if (isEvading) {
+            movePicker.init(this.searchBoard, IntMove.NO_MOVE, IntMove.NO_MOVE, IntMove.NO_MOVE);
+        } else {
+            standPat = evaluate();
+            if (standPat >= beta) {
+                return standPat;
+            }
+            bestScore = standPat;
+            if (standPat > alpha) {
+                alpha = standPat;
+            }
+            movePicker.initCaptures(this.searchBoard);
+        }
+
+        final int deltaMargin = this.searchParameters.getDeltaMargin();
+        for (int move = movePicker.nextMove(); move != IntMove.NO_MOVE; move = movePicker.nextMove()) {
+            // delta pruning: even winning the captured piece for nothing leaves the score below alpha
+            if (!isEvading && this.searchParameters.isDeltaPruning() && !IntMove.isPromotion(move) &&
+                standPat + PIECE_TYPES[IntMove.getCapturedType(move)].getPieceValue() + deltaMargin <= alpha) {
+                continue;
+            }
+            this.searchBoard.makeMove(move);
+            final int score = -quiescence(-beta, -alpha);
+            this.searchBoard.unmakeMove();
+            if (this.isStopped) {
+                return DRAW_SCORE;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    this.searchStack.updatePrincipalVariation(ply, move);
+                    if (score >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (bestScore == -INFINITY) {
+            // in check with no evasions
+            return -MATE_SCORE + ply;
+        }
+        return bestScore;
+    }
+
+    // the first iteration always runs to the end, after that the budgets are checked (the clock only every so many nodes)
+    // the node budget is the main thread's
+    private boolean shouldStop() {
+        if (this.isStopped) {
+            return true;
+        }
+        // the helpers only stop when the main thread tells them to
+        if (this.threadId != MAIN_THREAD) {
+            if ((this.nodes % NODES_BETWEEN_TIME_CHECKS) == 0 && this.stopSignal.get()) {
+                this.isStopped = true;
+            }
+            return this.isStopped;
+        }
+        if (this.completedDepth == 0) {
+            return false;
+        }
+        if (this.searchParameters.hasNodeLimit() && this.nodes >= this.searchParameters.getNodeLimit()) {
+            this.isStopped = true;
+        } else if ((this.nodes % NODES_BETWEEN_TIME_CHECKS) == 0 && System.currentTimeMillis() >= this.deadline) {
+            this.isStopped = true;
+        }
+        return this.isStopped;
+    }
+
+    // the evaluator scores for white, negamax wants the score for the side to move
+    private int evaluate() {
+        final int score = this.boardEvaluator.evaluate(this.searchBoard, 0);
+        return this.searchBoard.getSideToMove().isWhite() ? score : -score;
+    }
+
+    public static boolean isMateScore(final int score) {
+        return Math.abs(score) >= MATE_SCORE - SearchStack.MAX_PLY;
+    }
+
+    // the score of the last finished iteration, for the side that was to move
+    public int getBestScore() {
+        return this.bestScore;
+    }
+
+    // the depth of the last finished iteration
+    public int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    // the nodes of every thread
+    public long getNodes() {
+        long nodes = this.nodes;
+        for (final AlphaBeta helper : this.helpers) {
+            nodes += helper.nodes;
+        }
+        return nodes;
+    }
+
+    public String getPrincipalVariation() {
+        return this.searchResult == null ? "" : this.searchResult.principalVariationToString();
+    }
+
+    // the result of the last search, null before the first one
+    public SearchResult getSearchResult() {
+        return this.searchResult;
+    }
+
+    // stops the helper threads, the strategy cannot search with helpers afterwards
+    @Override
+    public void close() {
+        if (this.executor != null) {
+            this.executor.shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AlphaBeta";
+    }
+}
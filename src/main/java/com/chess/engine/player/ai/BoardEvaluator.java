@@ -1,7 +1,11 @@
 package com.chess.engine.player.ai;
 
 import com.chess.engine.board.Board;
+import com.chess.engine.board.SearchBoard;
 
 public interface BoardEvaluator {
     int evaluate(Board board, int depth);
+
+    // the same score for the position on a search board, without building a Board
+    int evaluate(SearchBoard searchBoard, int depth);
 }
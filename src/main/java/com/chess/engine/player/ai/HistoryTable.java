@@ -0,0 +1,61 @@
+package com.chess.engine.player.ai;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.IntMove;
+
+/*
+ * The history heuristic: how often a quiet move between two squares caused a beta cutoff anywhere in the tree,
+ * weighted by depth squared so cutoffs near the root count for more than the many cutoffs near the leaves
+ * The move picker tries the quiet moves with the best history first (after the hash move, the captures and the killers)
+ * Scores are halved between searches and whenever one grows too large, so old cutoffs fade and nothing overflows
+ * The helper threads of a parallel search add a little noise, so each orders the moves without history its own way
+ */
+
+public class HistoryTable {
+
+    private static final int MAX_SCORE = 1 << 24;
+    // about what a handful of cutoffs near the leaves add, the real history soon outweighs it
+    private static final int MAX_NOISE = 16;
+
+    private final int[] scores;
+
+    public HistoryTable(){
+        this.scores = new int[BoardUtils.NUM_TILES * BoardUtils.NUM_TILES];
+    }
+
+    public int getScore(final int move){
+        return this.scores[index(move)];
+    }
+
+    // the quiet move caused a cutoff with depth plies left to search
+    public void update(final int move, final int depth){
+        final int index = index(move);
+        this.scores[index] += depth * depth;
+        if (this.scores[index] >= MAX_SCORE){
+            age();
+        }
+    }
+
+    public void age(){
+        for (int i = 0; i < this.scores.length; i++){
+            this.scores[i] >>= 1;
+        }
+    }
+
+    public void addNoise(final Random random){
+        for (int i = 0; i < this.scores.length; i++){
+            this.scores[i] += random.nextInt(MAX_NOISE);
+        }
+    }
+
+    public void clear(){
+        Arrays.fill(this.scores, 0);
+    }
+
+    private static int index(final int move){
+        return IntMove.getFrom(move) * BoardUtils.NUM_TILES + IntMove.getTo(move);
+    }
+}
@@ -1,110 +1,135 @@
 package com.chess.engine.player.ai;
 
 import com.chess.engine.board.Board;
+import com.chess.engine.board.IntMove;
+import com.chess.engine.board.IntMoveList;
 import com.chess.engine.board.Move;
-import com.chess.engine.player.MoveTransition;
+import com.chess.engine.board.SearchBoard;
+
+/*
+ * Plain minimax, searched on a SearchBoard with make/unmake so no Board, MoveTransition or move list is built per node
+ * The move lists and the principal variation come from a SearchStack that lives as long as this strategy
+ */
 
 public class MiniMax implements MoveStrategy {
 
     private final BoardEvaluator boardEvaluator;
     private final int searchDepth;
+    private final SearchStack searchStack;
+    private SearchBoard searchBoard;
 
     public MiniMax(int searchDepth) {
         this.boardEvaluator = new StandardBoardEvaluator();
         this.searchDepth = searchDepth;
+        this.searchStack = new SearchStack();
     }
 
     @Override
     public Move execute(Board board) {
         final long startTime = System.currentTimeMillis();
-        Move bestMove = null;
+        int bestMove = IntMove.NO_MOVE;
         int highestSeenValue = Integer.MIN_VALUE;
         int lowestSeenValue = Integer.MAX_VALUE;
         int currentValue;
 
         System.out.println(board.currentPlayer() + " THINKING with depth = " + searchDepth);
 
-        int numMoves = board.currentPlayer().getLegalMoves().size();
-        
-        for (Move move: board.currentPlayer().getLegalMoves()){
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()){
-                // if current player is white, minimize the value of the next board (where black is playing)
-                currentValue = board.currentPlayer().getAlliance().isWhite() ? 
-                    min(moveTransition.getTransitionBoard(), searchDepth - 1) : 
-                    max(moveTransition.getTransitionBoard(), searchDepth - 1);
-                
-                // white wants the highest value, black wants the lowest value
-                if (board.currentPlayer().getAlliance().isWhite() && currentValue >= highestSeenValue){
-                    highestSeenValue = currentValue;
-                    bestMove = move;
-                } else if (board.currentPlayer().getAlliance().isBlack() && currentValue <= lowestSeenValue){
-                    lowestSeenValue = currentValue;
-                    bestMove = move;
-                }
+        if (this.searchBoard == null) {
+            this.searchBoard = new SearchBoard(board);
+        } else {
+            this.searchBoard.setPosition(board);
+        }
+        this.searchStack.clearPrincipalVariation(0);
+        final boolean isWhite = board.currentPlayer().getAlliance().isWhite();
+        final IntMoveList moves = this.searchStack.getMoves(0);
+        this.searchBoard.generateLegalMoves(moves);
+
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = moves.get(i);
+            this.searchBoard.makeMove(move);
+            // if current player is white, minimize the value of the next board (where black is playing)
+            currentValue = isWhite ? min(searchDepth - 1) : max(searchDepth - 1);
+            this.searchBoard.unmakeMove();
+
+            // white wants the highest value, black wants the lowest value
+            if (isWhite && currentValue >= highestSeenValue) {
+                highestSeenValue = currentValue;
+                bestMove = move;
+                this.searchStack.updatePrincipalVariation(0, move);
+            } else if (!isWhite && currentValue <= lowestSeenValue) {
+                lowestSeenValue = currentValue;
+                bestMove = move;
+                this.searchStack.updatePrincipalVariation(0, move);
             }
         }
 
         final long executionTime = System.currentTimeMillis() - startTime;
-        System.out.println("Execution time: " + executionTime + " ms, best move: " + bestMove + ", highestSeenValue: " + highestSeenValue);
-        return bestMove;
+        System.out.println("Execution time: " + executionTime + " ms, best move: " + IntMove.toString(bestMove) +
+                           ", highestSeenValue: " + highestSeenValue + ", pv: " + this.searchStack.principalVariationToString());
+        return bestMove == IntMove.NO_MOVE ? null : IntMove.toMove(board, bestMove);
     }
 
     // Cool algo
 
-    public int min(Board board, int searchDepth) {
+    private int min(int searchDepth) {
+        final int ply = this.searchBoard.getPly();
+        this.searchStack.clearPrincipalVariation(ply);
         // Base case
-        //TODO or game over
-        if (searchDepth == 0 || isEndGameScenario(board)){
-            return this.boardEvaluator.evaluate(board, searchDepth);
+        if (searchDepth == 0) {
+            return this.boardEvaluator.evaluate(this.searchBoard, searchDepth);
+        }
+        final IntMoveList moves = this.searchStack.getMoves(ply);
+        this.searchBoard.generateLegalMoves(moves);
+        // no legal moves is checkmate or stalemate
+        if (moves.isEmpty()) {
+            return this.boardEvaluator.evaluate(this.searchBoard, searchDepth);
         }
 
         // recursive case
         int lowestSeenValue = Integer.MAX_VALUE;
-        // go through the current player's legal moves and make the move
-        // if the move is legal, evaluate the transition board, update the lowestSeenValue
-        for (Move move: board.currentPlayer().getLegalMoves()){
-            
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            
-            if (moveTransition.getMoveStatus().isDone()){
-                final int currentValue = max(moveTransition.getTransitionBoard(), searchDepth - 1);
-                if (currentValue <= lowestSeenValue){
-                    lowestSeenValue = currentValue;
-                }
+        // make each legal move, evaluate the position after it and update the lowestSeenValue
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = moves.get(i);
+            this.searchBoard.makeMove(move);
+            final int currentValue = max(searchDepth - 1);
+            this.searchBoard.unmakeMove();
+            if (currentValue <= lowestSeenValue) {
+                lowestSeenValue = currentValue;
+                this.searchStack.updatePrincipalVariation(ply, move);
             }
         }
-        return lowestSeenValue;  
+        return lowestSeenValue;
     }
 
-    public int max(Board board, int searchDepth) {
-        //TODO or game over
-        if (searchDepth == 0 || isEndGameScenario(board)){
-            return this.boardEvaluator.evaluate(board, searchDepth);
+    private int max(int searchDepth) {
+        final int ply = this.searchBoard.getPly();
+        this.searchStack.clearPrincipalVariation(ply);
+        if (searchDepth == 0) {
+            return this.boardEvaluator.evaluate(this.searchBoard, searchDepth);
+        }
+        final IntMoveList moves = this.searchStack.getMoves(ply);
+        this.searchBoard.generateLegalMoves(moves);
+        if (moves.isEmpty()) {
+            return this.boardEvaluator.evaluate(this.searchBoard, searchDepth);
         }
 
         int highestSeenValue = Integer.MIN_VALUE;
-        for (Move move: board.currentPlayer().getLegalMoves()){
-            
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            
-            if (moveTransition.getMoveStatus().isDone()){
-                final int currentValue = min(moveTransition.getTransitionBoard(), searchDepth - 1);
-                if (currentValue >= highestSeenValue){
-                    highestSeenValue = currentValue;
-                }
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = moves.get(i);
+            this.searchBoard.makeMove(move);
+            final int currentValue = min(searchDepth - 1);
+            this.searchBoard.unmakeMove();
+            if (currentValue >= highestSeenValue) {
+                highestSeenValue = currentValue;
+                this.searchStack.updatePrincipalVariation(ply, move);
             }
         }
         return highestSeenValue;
     }
 
-    private static boolean isEndGameScenario(Board board) {
-        return board.currentPlayer().isInCheckMate() || board.currentPlayer().isInStaleMate();
-    }
-
     @Override
     public String toString() {
         return "MiniMax";
     }
-    
+
 }
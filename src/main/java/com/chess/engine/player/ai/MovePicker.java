@@ -0,0 +1,194 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.IntMove;
+import com.chess.engine.board.IntMoveList;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/*
+ * Hands the search the legal moves of one node one at a time, most promising first, and only generates a stage once it is reached
+ * Stages: the hash move, captures and promotions best first, the killer moves, then every other quiet move
+ * Captures are ordered most valuable victim first and, between equal victims, least valuable attacker first (MVV-LVA),
+ * a promotion counts what it gains as if it were a victim; the quiet moves are ordered by the history table
+ * A cutoff on the hash move or a capture means the quiet moves are never generated
+ * The hash move and killers come from other positions, so they are checked with SearchBoard.isLegalMove before they are returned,
+ * and are skipped when they come up again in the generated stages
+ * The search keeps one picker per ply, scoring into the ply's scores on the SearchStack, and calls init at every node,
+ * so nothing is allocated while searching
+ * The quiescence search only wants the captures and promotions, initCaptures stops the picker after the capture stage
+ */
+
+public class MovePicker {
+
+    private static final int HASH_MOVE = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int CAPTURES = 2;
+    private static final int FIRST_KILLER = 3;
+    private static final int SECOND_KILLER = 4;
+    private static final int GENERATE_QUIET_MOVES = 5;
+    private static final int QUIET_MOVES = 6;
+    private static final int DONE = 7;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    // the victim counts for more than any attacker but the king, which is left out of the attacker term
+    private static final int VICTIM_WEIGHT = 100;
+
+    private final IntMoveList moves;
+    private final int[] scores;
+    private final HistoryTable historyTable;
+
+    private SearchBoard searchBoard;
+    private int hashMove;
+    private int firstKiller;
+    private int secondKiller;
+    private int stage;
+    private int index;
+    private boolean isCapturesOnly;
+
+    // an empty history leaves the quiet moves in the order they were generated
+    public MovePicker(){
+        this(new HistoryTable());
+    }
+
+    public MovePicker(final HistoryTable historyTable){
+        this(historyTable, new int[IntMoveList.DEFAULT_CAPACITY]);
+    }
+
+    // the scores hold one score for every move the picker generates, they are overwritten at every stage
+    public MovePicker(final HistoryTable historyTable, final int[] scores){
+        this.moves = new IntMoveList();
+        this.scores = scores;
+        this.historyTable = historyTable;
+    }
+
+    // killers are quiet moves that caused a cutoff at the same ply elsewhere in the tree, IntMove.NO_MOVE when there are none
+    public void init(final SearchBoard searchBoard, final int hashMove, final int firstKiller, final int secondKiller){
+        this.searchBoard = searchBoard;
+        this.hashMove = hashMove;
+        this.firstKiller = firstKiller;
+        this.secondKiller = secondKiller;
+        this.stage = HASH_MOVE;
+        this.index = 0;
+        this.isCapturesOnly = false;
+        this.moves.clear();
+    }
+
+    // only the captures and promotions, best first
+    public void initCaptures(final SearchBoard searchBoard){
+        init(searchBoard, IntMove.NO_MOVE, IntMove.NO_MOVE, IntMove.NO_MOVE);
+        this.stage = GENERATE_CAPTURES;
+        this.isCapturesOnly = true;
+    }
+
+    // the next legal move, or IntMove.NO_MOVE when every move has been returned
+    public int nextMove(){
+        while (true){
+            switch (this.stage){
+                case HASH_MOVE:
+                    this.stage = GENERATE_CAPTURES;
+                    if (this.searchBoard.isLegalMove(this.hashMove)){
+                        return this.hashMove;
+                    }
+                    break;
+                case GENERATE_CAPTURES:
+                    this.moves.clear();
+                    this.searchBoard.generateCaptures(this.moves);
+                    scoreCaptures();
+                    this.index = 0;
+                    this.stage = CAPTURES;
+                    break;
+                case CAPTURES:
+                    if (this.index < this.moves.size()){
+                        final int move = pickBest(this.index++);
+                        if (move != this.hashMove){
+                            return move;
+                        }
+                        break;
+                    }
+                    this.stage = this.isCapturesOnly ? DONE : FIRST_KILLER;
+                    break;
+                case FIRST_KILLER:
+                    this.stage = SECOND_KILLER;
+                    if (isUsableKiller(this.firstKiller)){
+                        return this.firstKiller;
+                    }
+                    break;
+                case SECOND_KILLER:
+                    this.stage = GENERATE_QUIET_MOVES;
+                    if (this.secondKiller != this.firstKiller && isUsableKiller(this.secondKiller)){
+                        return this.secondKiller;
+                    }
+                    break;
+                case GENERATE_QUIET_MOVES:
+                    this.moves.clear();
+                    this.searchBoard.generateQuietMoves(this.moves);
+                    scoreQuietMoves();
+                    this.index = 0;
+                    this.stage = QUIET_MOVES;
+                    break;
+                case QUIET_MOVES:
+                    if (this.index < this.moves.size()){
+                        final int move = pickBest(this.index++);
+                        if (move != this.hashMove && move != this.firstKiller && move != this.secondKiller){
+                            return move;
+                        }
+                        break;
+                    }
+                    this.stage = DONE;
+                    break;
+                default:
+                    return IntMove.NO_MOVE;
+            }
+        }
+    }
+
+    // a killer is only tried as a quiet move, captures and promotions are already covered by the capture stage
+    private boolean isUsableKiller(final int killer){
+        return killer != this.hashMove && !IntMove.isCapture(killer) && !IntMove.isPromotion(killer) &&
+               this.searchBoard.isLegalMove(killer);
+    }
+
+    // MVV-LVA, plus what a promotion gains
+    private void scoreCaptures(){
+        for (int i = 0; i < this.moves.size(); i++){
+            final int move = this.moves.get(i);
+            int score = 0;
+            if (IntMove.isCapture(move)){
+                score += PIECE_TYPES[IntMove.getCapturedType(move)].getPieceValue() * VICTIM_WEIGHT -
+                         attackerValue(PIECE_TYPES[IntMove.getMovedType(move)]);
+            }
+            if (IntMove.isPromotion(move)){
+                score += (PIECE_TYPES[IntMove.getPromotionType(move)].getPieceValue() - PieceType.PAWN.getPieceValue()) * VICTIM_WEIGHT;
+            }
+            this.scores[i] = score;
+        }
+    }
+
+    // a legal king capture can never be recaptured, so it risks nothing
+    private static int attackerValue(final PieceType attacker){
+        return attacker == PieceType.KING ? 0 : attacker.getPieceValue();
+    }
+
+    private void scoreQuietMoves(){
+        for (int i = 0; i < this.moves.size(); i++){
+            this.scores[i] = this.historyTable.getScore(this.moves.get(i));
+        }
+    }
+
+    // selection sort one move at a time, a cutoff early on leaves the rest unsorted
+    private int pickBest(final int from){
+        int best = from;
+        for (int i = from + 1; i < this.moves.size(); i++){
+            if (this.scores[i] > this.scores[best]){
+                best = i;
+            }
+        }
+        if (best != from){
+            this.moves.swap(from, best);
+            final int score = this.scores[from];
+            this.scores[from] = this.scores[best];
+            this.scores[best] = score;
+        }
+        return this.moves.get(from);
+    }
+}
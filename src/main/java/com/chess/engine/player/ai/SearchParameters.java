@@ -0,0 +1,362 @@
+package com.chess.engine.player.ai;
+
+/*
+ * The settings of one search: its depth, time and node budgets, the transposition table and thread count,
+ * and which search techniques and pruning are on, built with the Builder
+ */
+
+public class SearchParameters {
+
+    public static final long NO_LIMIT = 0L;
+    public static final int DEFAULT_MAX_DEPTH = 64;
+    public static final int DEFAULT_HASH_TABLE_SIZE = 16;
+    public static final int DEFAULT_THREADS = 1;
+    // every thread has its own search stack, more threads than this only add memory and contention
+    public static final int MAX_THREADS = 4 * Runtime.getRuntime().availableProcessors();
+    // a little under the value of a minor piece, room for the positional terms a capture can swing
+    public static final int DEFAULT_DELTA_MARGIN = 200;
+    public static final int DEFAULT_ASPIRATION_WINDOW = 50;
+    public static final int DEFAULT_NULL_MOVE_REDUCTION = 2;
+    public static final int DEFAULT_LATE_MOVE_REDUCTION_MOVES = 3;
+    public static final int DEFAULT_FUTILITY_MARGIN = 200;
+    public static final int DEFAULT_REVERSE_FUTILITY_MARGIN = 150;
+    public static final int DEFAULT_RAZORING_MARGIN = 300;
+
+    private final int maxDepth;
+    private final long timeLimitMillis;
+    private final long nodeLimit;
+    private final int hashTableSize;
+    private final int threads;
+    private final boolean quiescenceCheckEvasions;
+    private final boolean deltaPruning;
+    private final int deltaMargin;
+    private final boolean principalVariationSearch;
+    private final int aspirationWindow;
+    private final boolean nullMovePruning;
+    private final int nullMoveReduction;
+    private final boolean lateMoveReductions;
+    private final int lateMoveReductionMoves;
+    private final boolean futilityPruning;
+    private final int futilityMargin;
+    private final boolean reverseFutilityPruning;
+    private final int reverseFutilityMargin;
+    private final boolean razoring;
+    private final int razoringMargin;
+
+    private SearchParameters(final Builder builder){
+        this.maxDepth = builder.maxDepth;
+        this.timeLimitMillis = builder.timeLimitMillis;
+        this.nodeLimit = builder.nodeLimit;
+        this.hashTableSize = builder.hashTableSize;
+        this.threads = builder.threads;
+        this.quiescenceCheckEvasions = builder.quiescenceCheckEvasions;
+        this.deltaPruning = builder.deltaPruning;
+        this.deltaMargin = builder.deltaMargin;
+        this.principalVariationSearch = builder.principalVariationSearch;
+        this.aspirationWindow = builder.aspirationWindow;
+        this.nullMovePruning = builder.nullMovePruning;
+        this.nullMoveReduction = builder.nullMoveReduction;
+        this.lateMoveReductions = builder.lateMoveReductions;
+        this.lateMoveReductionMoves = builder.lateMoveReductionMoves;
+        this.futilityPruning = builder.futilityPruning;
+        this.futilityMargin = builder.futilityMargin;
+        this.reverseFutilityPruning = builder.reverseFutilityPruning;
+        this.reverseFutilityMargin = builder.reverseFutilityMargin;
+        this.razoring = builder.razoring;
+        this.razoringMargin = builder.razoringMargin;
+    }
+
+    public static SearchParameters fixedDepth(final int depth){
+        return new Builder().setMaxDepth(depth).build();
+    }
+
+    public int getMaxDepth(){
+        return this.maxDepth;
+    }
+
+    public long getTimeLimitMillis(){
+        return this.timeLimitMillis;
+    }
+
+    public long getNodeLimit(){
+        return this.nodeLimit;
+    }
+
+    public int getHashTableSize(){
+        return this.hashTableSize;
+    }
+
+    public int getThreads(){
+        return this.threads;
+    }
+
+    public boolean isQuiescenceCheckEvasions(){
+        return this.quiescenceCheckEvasions;
+    }
+
+    public boolean isDeltaPruning(){
+        return this.deltaPruning;
+    }
+
+    public int getDeltaMargin(){
+        return this.deltaMargin;
+    }
+
+    public boolean isPrincipalVariationSearch(){
+        return this.principalVariationSearch;
+    }
+
+    public int getAspirationWindow(){
+        return this.aspirationWindow;
+    }
+
+    public boolean isNullMovePruning(){
+        return this.nullMovePruning;
+    }
+
+    public int getNullMoveReduction(){
+        return this.nullMoveReduction;
+    }
+
+    public boolean isLateMoveReductions(){
+        return this.lateMoveReductions;
+    }
+
+    public int getLateMoveReductionMoves(){
+        return this.lateMoveReductionMoves;
+    }
+
+    public boolean isFutilityPruning(){
+        return this.futilityPruning;
+    }
+
+    public int getFutilityMargin(){
+        return this.futilityMargin;
+    }
+
+    public boolean isReverseFutilityPruning(){
+        return this.reverseFutilityPruning;
+    }
+
+    public int getReverseFutilityMargin(){
+        return this.reverseFutilityMargin;
+    }
+
+    public boolean isRazoring(){
+        return this.razoring;
+    }
+
+    public int getRazoringMargin(){
+        return this.razoringMargin;
+    }
+
+    public boolean hasTimeLimit(){
+        return this.timeLimitMillis != NO_LIMIT;
+    }
+
+    public boolean hasNodeLimit(){
+        return this.nodeLimit != NO_LIMIT;
+    }
+
+    @Override
+    public String toString(){
+        return "depth " + this.maxDepth + (hasTimeLimit() ? ", " + this.timeLimitMillis + " ms" : "") +
+               (hasNodeLimit() ? ", " + this.nodeLimit + " nodes" : "") + (this.threads > 1 ? ", " + this.threads + " threads" : "");
+    }
+
+    public static class Builder {
+
+        private int maxDepth;
+        private long timeLimitMillis;
+        private long nodeLimit;
+        private int hashTableSize;
+        private int threads;
+        private boolean quiescenceCheckEvasions;
+        private boolean deltaPruning;
+        private int deltaMargin;
+        private boolean principalVariationSearch;
+        private int aspirationWindow;
+        private boolean nullMovePruning;
+        private int nullMoveReduction;
+        private boolean lateMoveReductions;
+        private int lateMoveReductionMoves;
+        private boolean futilityPruning;
+        private int futilityMargin;
+        private boolean reverseFutilityPruning;
+        private int reverseFutilityMargin;
+        private boolean razoring;
+        private int razoringMargin;
+
+        public Builder(){
+            this.maxDepth = DEFAULT_MAX_DEPTH;
+            this.timeLimitMillis = NO_LIMIT;
+            this.nodeLimit = NO_LIMIT;
+            this.hashTableSize = DEFAULT_HASH_TABLE_SIZE;
+            this.threads = DEFAULT_THREADS;
+            this.quiescenceCheckEvasions = true;
+            this.deltaPruning = true;
+            this.deltaMargin = DEFAULT_DELTA_MARGIN;
+            this.principalVariationSearch = true;
+            this.aspirationWindow = DEFAULT_ASPIRATION_WINDOW;
+            this.nullMovePruning = true;
+            this.nullMoveReduction = DEFAULT_NULL_MOVE_REDUCTION;
+            this.lateMoveReductions = true;
+            this.lateMoveReductionMoves = DEFAULT_LATE_MOVE_REDUCTION_MOVES;
+            this.futilityPruning = true;
+            this.futilityMargin = DEFAULT_FUTILITY_MARGIN;
+            this.reverseFutilityPruning = true;
+            this.reverseFutilityMargin = DEFAULT_REVERSE_FUTILITY_MARGIN;
+            this.razoring = true;
+            this.razoringMargin = DEFAULT_RAZORING_MARGIN;
+        }
+
+        // depths below one still search one ply, the search always needs a move to return
+        public Builder setMaxDepth(final int maxDepth){
+            this.maxDepth = Math.max(1, Math.min(maxDepth, SearchStack.MAX_PLY - 1));
+            return this;
+        }
+
+        // NO_LIMIT to search until the depth is reached
+        public Builder setTimeLimit(final long timeLimitMillis){
+            if (timeLimitMillis < 0){
+                throw new RuntimeException("Time limit cannot be negative, got " + timeLimitMillis);
+            }
+            this.timeLimitMillis = timeLimitMillis;
+            return this;
+        }
+
+        public Builder setNodeLimit(final long nodeLimit){
+            if (nodeLimit < 0){
+                throw new RuntimeException("Node limit cannot be negative, got " + nodeLimit);
+            }
+            this.nodeLimit = nodeLimit;
+            return this;
+        }
+
+        // in MB, 0 turns the transposition table off
+        public Builder setHashTableSize(final int hashTableSize){
+            if (hashTableSize < 0){
+                throw new RuntimeException("Hash table size cannot be negative, got " + hashTableSize);
+            }
+            this.hashTableSize = hashTableSize;
+            return this;
+        }
+
+        // the main search thread plus threads - 1 helpers sharing its transposition table
+        public Builder setThreads(final int threads){
+            if (threads < 1){
+                throw new RuntimeException("The search needs at least one thread, got " + threads);
+            }
+            if (threads > MAX_THREADS){
+                throw new RuntimeException("The search can use at most " + MAX_THREADS + " threads, got " + threads);
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        // off, a side in check at the leaves stands pat and only looks at its captures like any other
+        public Builder setQuiescenceCheckEvasions(final boolean quiescenceCheckEvasions){
+            this.quiescenceCheckEvasions = quiescenceCheckEvasions;
+            return this;
+        }
+
+        public Builder setDeltaPruning(final boolean deltaPruning){
+            this.deltaPruning = deltaPruning;
+            return this;
+        }
+
+        public Builder setDeltaMargin(final int deltaMargin){
+            if (deltaMargin < 0){
+                throw new RuntimeException("Delta margin cannot be negative, got " + deltaMargin);
+            }
+            this.deltaMargin = deltaMargin;
+            return this;
+        }
+
+        // off, every move is searched with the full window
+        public Builder setPrincipalVariationSearch(final boolean principalVariationSearch){
+            this.principalVariationSearch = principalVariationSearch;
+            return this;
+        }
+
+        public Builder setAspirationWindow(final int aspirationWindow){
+            if (aspirationWindow < 0){
+                throw new RuntimeException("Aspiration window cannot be negative, got " + aspirationWindow);
+            }
+            this.aspirationWindow = aspirationWindow;
+            return this;
+        }
+
+        public Builder setNullMovePruning(final boolean nullMovePruning){
+            this.nullMovePruning = nullMovePruning;
+            return this;
+        }
+
+        // how much shallower than the node the null move is searched, on top of the ply it uses
+        public Builder setNullMoveReduction(final int nullMoveReduction){
+            if (nullMoveReduction < 1){
+                throw new RuntimeException("Null move reduction must be at least 1, got " + nullMoveReduction);
+            }
+            this.nullMoveReduction = nullMoveReduction;
+            return this;
+        }
+
+        public Builder setLateMoveReductions(final boolean lateMoveReductions){
+            this.lateMoveReductions = lateMoveReductions;
+            return this;
+        }
+
+        // how many moves of a node are searched at full depth before the quiet ones are reduced
+        public Builder setLateMoveReductionMoves(final int lateMoveReductionMoves){
+            if (lateMoveReductionMoves < 1){
+                throw new RuntimeException("At least the first move must be searched at full depth, got " + lateMoveReductionMoves);
+            }
+            this.lateMoveReductionMoves = lateMoveReductionMoves;
+            return this;
+        }
+
+        public Builder setFutilityPruning(final boolean futilityPruning){
+            this.futilityPruning = futilityPruning;
+            return this;
+        }
+
+        // per ply of depth left
+        public Builder setFutilityMargin(final int futilityMargin){
+            this.futilityMargin = checkMargin("Futility", futilityMargin);
+            return this;
+        }
+
+        public Builder setReverseFutilityPruning(final boolean reverseFutilityPruning){
+            this.reverseFutilityPruning = reverseFutilityPruning;
+            return this;
+        }
+
+        // per ply of depth left
+        public Builder setReverseFutilityMargin(final int reverseFutilityMargin){
+            this.reverseFutilityMargin = checkMargin("Reverse futility", reverseFutilityMargin);
+            return this;
+        }
+
+        public Builder setRazoring(final boolean razoring){
+            this.razoring = razoring;
+            return this;
+        }
+
+        // per ply of depth left
+        public Builder setRazoringMargin(final int razoringMargin){
+            this.razoringMargin = checkMargin("Razoring", razoringMargin);
+            return this;
+        }
+
+        private static int checkMargin(final String name, final int margin){
+            if (margin < 0){
+                throw new RuntimeException(name + " margin cannot be negative, got " + margin);
+            }
+            return margin;
+        }
+
+        public SearchParameters build(){
+            return new SearchParameters(this);
+        }
+    }
+}
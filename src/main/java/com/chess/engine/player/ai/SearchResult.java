@@ -0,0 +1,93 @@
+package com.chess.engine.player.ai;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.IntMove;
+import com.chess.engine.board.Move;
+
+/*
+ * What one search found: the move to play and its score for the side to move, the depth of the last finished iteration,
+ * and the principal variation, the line both sides are expected to play from the searched position
+ * The principal variation is replayed on the board, so every move in it is a real Move of the position it is played in
+ */
+
+public class SearchResult {
+
+    private final Move bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedMillis;
+    private final List<Move> principalVariation;
+
+    public SearchResult(final Board board, final int[] principalVariation, final int score, final int depth, final long nodes,
+                        final long elapsedMillis){
+        this.principalVariation = replay(board, principalVariation);
+        this.bestMove = this.principalVariation.isEmpty() ? null : this.principalVariation.get(0);
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // null when the side to move has no legal moves
+    public Move getBestMove(){
+        return this.bestMove;
+    }
+
+    public int getScore(){
+        return this.score;
+    }
+
+    public int getDepth(){
+        return this.depth;
+    }
+
+    public long getNodes(){
+        return this.nodes;
+    }
+
+    public long getElapsedMillis(){
+        return this.elapsedMillis;
+    }
+
+    public List<Move> getPrincipalVariation(){
+        return this.principalVariation;
+    }
+
+    // the line in coordinate notation, e.g. "e2e4 e7e5 g1f3"
+    public String principalVariationToString(){
+        final StringBuilder builder = new StringBuilder();
+        for (final Move move : this.principalVariation){
+            if (builder.length() > 0){
+                builder.append(' ');
+            }
+            builder.append(IntMove.toString(IntMove.fromMove(move)));
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString(){
+        return "depth " + this.depth + ", score: " + this.score + ", nodes: " + this.nodes + ", time: " + this.elapsedMillis +
+               " ms, pv: " + principalVariationToString();
+    }
+
+    // the line stops at the first move the board does not know, it cannot be played on from there
+    private static List<Move> replay(final Board board, final int[] principalVariation){
+        final List<Move> moves = new ArrayList<>(principalVariation.length);
+        Board position = board;
+        for (final int intMove : principalVariation){
+            final Move move = IntMove.toMove(position, intMove);
+            if (move == Move.NULL_MOVE){
+                break;
+            }
+            moves.add(move);
+            position = move.execute();
+        }
+        return Collections.unmodifiableList(moves);
+    }
+}
@@ -0,0 +1,125 @@
+package com.chess.engine.player.ai;
+
+import java.util.Arrays;
+
+import com.chess.engine.board.IntMove;
+import com.chess.engine.board.IntMoveList;
+import com.chess.engine.board.SearchBoard;
+
+/*
+ * Everything the search needs at each ply, allocated once for the deepest possible search and reused at every node and every search
+ * (the undo records live on the SearchBoard, which keeps its own stack indexed by ply)
+ *  - a move list and a score for every move the ply generates
+ *  - a move picker scoring into the ply's scores, every picker ordering its quiet moves by the one history table
+ *  - two killer moves: quiet moves that caused a beta cutoff at the ply elsewhere in the tree, the latest first
+ *  - the principal variation found below the ply: pv[ply] holds the best line from ply onwards, pvLength[ply] moves long,
+ *    and a new best move at a ply is that move followed by the line one ply deeper
+ */
+
+public class SearchStack {
+
+    public static final int MAX_PLY = SearchBoard.MAX_PLY;
+
+    private final IntMoveList[] moves;
+    private final int[][] scores;
+    private final MovePicker[] movePickers;
+    private final int[][] killers;
+    private final HistoryTable historyTable;
+    private final int[][] principalVariation;
+    private final int[] principalVariationLength;
+
+    public SearchStack(){
+        this.moves = new IntMoveList[MAX_PLY + 1];
+        this.scores = new int[MAX_PLY + 1][IntMoveList.DEFAULT_CAPACITY];
+        this.movePickers = new MovePicker[MAX_PLY + 1];
+        this.historyTable = new HistoryTable();
+        for (int ply = 0; ply <= MAX_PLY; ply++){
+            this.moves[ply] = new IntMoveList();
+            this.movePickers[ply] = new MovePicker(this.historyTable, this.scores[ply]);
+        }
+        this.killers = new int[MAX_PLY + 1][2];
+        this.principalVariation = new int[MAX_PLY + 1][MAX_PLY + 1];
+        this.principalVariationLength = new int[MAX_PLY + 1];
+    }
+
+    // the move list of the ply, cleared
+    public IntMoveList getMoves(final int ply){
+        final IntMoveList plyMoves = this.moves[ply];
+        plyMoves.clear();
+        return plyMoves;
+    }
+
+    public int[] getScores(final int ply){
+        return this.scores[ply];
+    }
+
+    public MovePicker getMovePicker(final int ply){
+        return this.movePickers[ply];
+    }
+
+    public HistoryTable getHistoryTable(){
+        return this.historyTable;
+    }
+
+    public int getFirstKiller(final int ply){
+        return this.killers[ply][0];
+    }
+
+    public int getSecondKiller(final int ply){
+        return this.killers[ply][1];
+    }
+
+    // the quiet move caused a cutoff at the ply, the older of the two killers makes way unless the move is already the first
+    public void storeKiller(final int ply, final int move){
+        if (this.killers[ply][0] != move){
+            this.killers[ply][1] = this.killers[ply][0];
+            this.killers[ply][0] = move;
+        }
+    }
+
+    // killers are specific to the position being searched, the history carries over from one search to the next (aged)
+    public void newSearch(){
+        for (final int[] plyKillers : this.killers){
+            plyKillers[0] = IntMove.NO_MOVE;
+            plyKillers[1] = IntMove.NO_MOVE;
+        }
+        this.historyTable.age();
+    }
+
+    // called on entering a node, a leaf keeps the empty line
+    public void clearPrincipalVariation(final int ply){
+        this.principalVariationLength[ply] = 0;
+    }
+
+    // the move is the new best at the ply (always below MAX_PLY, the board cannot go deeper), the line continues one ply deeper
+    public void updatePrincipalVariation(final int ply, final int move){
+        final int childLength = this.principalVariationLength[ply + 1];
+        this.principalVariation[ply][0] = move;
+        System.arraycopy(this.principalVariation[ply + 1], 0, this.principalVariation[ply], 1, childLength);
+        this.principalVariationLength[ply] = childLength + 1;
+    }
+
+    public int getPrincipalVariationLength(){
+        return this.principalVariationLength[0];
+    }
+
+    public int getPrincipalVariationMove(final int index){
+        return index < this.principalVariationLength[0] ? this.principalVariation[0][index] : IntMove.NO_MOVE;
+    }
+
+    public int[] getPrincipalVariation(){
+        return Arrays.copyOf(this.principalVariation[0], this.principalVariationLength[0]);
+    }
+
+    // the root line in coordinate notation, e.g. "e2e4 e7e5 g1f3"
+    public String principalVariationToString(){
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < this.principalVariationLength[0]; i++){
+            if (i > 0){
+                builder.append(' ');
+            }
+            builder.append(IntMove.toString(this.principalVariation[0][i]));
+        }
+        return builder.toString();
+    }
+}
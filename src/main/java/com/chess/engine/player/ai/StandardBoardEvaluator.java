@@ -1,7 +1,9 @@
 package com.chess.engine.player.ai;
 
+import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
-import com.chess.engine.pieces.Piece;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.chess.engine.player.Player;
 
 public class StandardBoardEvaluator implements BoardEvaluator {
@@ -11,6 +13,8 @@ public class StandardBoardEvaluator implements BoardEvaluator {
     private static final int CASTLE_BONUS = 60;
     private static final int DEPTH_BONUS_VALUE = 100;
 
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
     @Override
     public int evaluate(Board board, int depth) {
         return scorePlayer(board, board.whitePlayer(), depth) - scorePlayer(board, board.blackPlayer(), depth);
@@ -18,13 +22,37 @@ public class StandardBoardEvaluator implements BoardEvaluator {
 
     private static int scorePlayer(Board board, Player whitePlayer, int depth) {
         // TODO add more features to evaluate the board
-        return pieceValue(whitePlayer) + castled(whitePlayer) + mobility(whitePlayer) + check(whitePlayer) + checkMate(whitePlayer, depth) + pieceValue(whitePlayer);
+        return pieceValue(board, whitePlayer) + castled(whitePlayer) + mobility(whitePlayer) + check(whitePlayer) + checkMate(whitePlayer, depth);
+    }
+
+    @Override
+    public int evaluate(SearchBoard searchBoard, int depth) {
+        return scoreAlliance(searchBoard, Alliance.WHITE, depth) - scoreAlliance(searchBoard, Alliance.BLACK, depth);
+    }
+
+    // the same features as scorePlayer, read off the search board
+    private static int scoreAlliance(SearchBoard searchBoard, Alliance alliance, int depth) {
+        final int castled = searchBoard.isCastled(alliance) ? CASTLE_BONUS : 0;
+        final int mobility = searchBoard.countPseudoLegalMoves(alliance);
+        final int check = searchBoard.isInCheck(alliance.getOpposite()) ? CHECK_BONUS : 0;
+        // only the side to move can be in check, so only it can be mated
+        final int checkMate = searchBoard.getSideToMove() != alliance && searchBoard.isInCheckMate() ? CHECK_MATE_BONUS * depthBonus(depth) : 0;
+        return pieceValue(searchBoard, alliance) + castled + mobility + check + checkMate;
+    }
+
+    private static int pieceValue(SearchBoard searchBoard, Alliance alliance) {
+        int pieceValueScore = 0;
+        for (final PieceType pieceType : PIECE_TYPES) {
+            pieceValueScore += searchBoard.getBitBoard().getPieceCount(alliance, pieceType) * pieceType.getPieceValue();
+        }
+        return pieceValueScore;
     }
 
-    private static int pieceValue(Player player) {
+    private static int pieceValue(Board board, Player player) {
+        // count the pieces of each type straight from the bitboards instead of walking the piece list
         int pieceValueScore = 0;
-        for (final Piece piece : player.getActivePieces()) {
-            pieceValueScore += piece.getPieceValue();
+        for (final PieceType pieceType : PIECE_TYPES) {
+            pieceValueScore += board.getBitBoard().getPieceCount(player.getAlliance(), pieceType) * pieceType.getPieceValue();
         }
         return pieceValueScore;
     }
@@ -0,0 +1,159 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.IntMove;
+
+/*
+ * Remembers what the search found for a position, keyed by the zobrist hash, so a position reached again by another
+ * move order can reuse the result (a cutoff straight away, or at least the best move to try first)
+ * The entries live in two long arrays, the hash and the packed data, so the table is a fixed size and never allocates
+ * The search threads share one table without locking (see AlphaBeta): the key array holds the hash xor the data, and an
+ * entry is only trusted when the key xor the data gives back the hash probed for, so an entry torn by two threads writing
+ * at once reads as a miss (the same scheme as PerftHashTable)
+ *  data bits 0-23  best move (IntMove)
+ *       bits 24-45 score, signed
+ *       bits 46-53 depth
+ *       bits 54-55 bound (EXACT, LOWER_BOUND, UPPER_BOUND, 0 for an empty slot)
+ *       bits 56-63 age, the search that wrote the entry
+ * Entries come in buckets of two: the first slot keeps the deepest result and is only replaced by one at least as deep
+ * or when it is left over from an earlier search, the second slot takes everything the first one turns away
+ */
+
+public class TranspositionTable {
+
+    public static final int EXACT = 1;
+    // the score is at least this much (the node failed high)
+    public static final int LOWER_BOUND = 2;
+    // the score is at most this much (every move failed low)
+    public static final int UPPER_BOUND = 3;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int BUCKET_SIZE = 2;
+
+    private static final int MOVE_BITS = 24;
+    private static final int SCORE_BITS = 22;
+    private static final int DEPTH_BITS = 8;
+    private static final int BOUND_BITS = 2;
+    private static final int AGE_BITS = 8;
+    private static final int SCORE_SHIFT = MOVE_BITS;
+    private static final int DEPTH_SHIFT = SCORE_SHIFT + SCORE_BITS;
+    private static final int BOUND_SHIFT = DEPTH_SHIFT + DEPTH_BITS;
+    private static final int AGE_SHIFT = BOUND_SHIFT + BOUND_BITS;
+
+    private static final int MAX_DEPTH = (1 << DEPTH_BITS) - 1;
+    private static final int AGE_MASK = (1 << AGE_BITS) - 1;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+    private int age;
+
+    public TranspositionTable(final int sizeInMegabytes){
+        if (sizeInMegabytes < 1){
+            throw new RuntimeException("Transposition table needs at least 1 MB, got " + sizeInMegabytes);
+        }
+        final long maxBuckets = Math.min((long) sizeInMegabytes * 1024 * 1024 / (ENTRY_BYTES * BUCKET_SIZE), 1L << 29);
+        final int buckets = Integer.highestOneBit((int) maxBuckets);
+        this.keys = new long[buckets * BUCKET_SIZE];
+        this.data = new long[buckets * BUCKET_SIZE];
+        this.bucketMask = buckets - 1;
+        this.age = 0;
+    }
+
+    public int size(){
+        return this.keys.length;
+    }
+
+    // called before every search, entries from older searches are the first to be replaced
+    public void newSearch(){
+        this.age = (this.age + 1) & AGE_MASK;
+    }
+
+    // the packed entry for the position, or 0 when there is none (read it with getMove, getScore, getDepth and getBound)
+    public long probe(final long hash){
+        final int index = bucketIndex(hash);
+        for (int slot = index; slot < index + BUCKET_SIZE; slot++){
+            final long entry = this.data[slot];
+            if (entry != 0 && (this.keys[slot] ^ entry) == hash){
+                return entry;
+            }
+        }
+        return 0L;
+    }
+
+    /* Mate scores are stored relative to this node instead of the root (see getScore), the same mate can be reached
+     * at different plies and has to score the same from wherever it is probed
+     */
+    public void store(final long hash, final int depth, final int score, final int bound, final int move, final int ply){
+        final int index = bucketIndex(hash);
+        // read each slot once, another thread may be writing it
+        final long first = this.data[index];
+        final long second = this.data[index + 1];
+        final int slot;
+        final long replaced;
+        if ((this.keys[index + 1] ^ second) == hash){
+            slot = index + 1;
+            replaced = second;
+        } else if ((this.keys[index] ^ first) == hash || first == 0 || depth >= getDepth(first) || getAge(first) != this.age){
+            slot = index;
+            replaced = first;
+        } else {
+            slot = index + 1;
+            replaced = second;
+        }
+        // a result without a move (every move failed low) keeps the move already known for the position
+        final int storedMove = move == IntMove.NO_MOVE && (this.keys[slot] ^ replaced) == hash ? getMove(replaced) : move;
+        final long entry = pack(storedMove, toStoredScore(score, ply), Math.min(depth, MAX_DEPTH), bound, this.age);
+        this.data[slot] = entry;
+        this.keys[slot] = hash ^ entry;
+    }
+
+    public static int getMove(final long entry){
+        return (int) (entry & ((1L << MOVE_BITS) - 1));
+    }
+
+    // the score as seen from the root, ply is the ply the entry is probed at
+    public static int getScore(final long entry, final int ply){
+        final int score = (int) (entry << (64 - DEPTH_SHIFT) >> (64 - SCORE_BITS));
+        if (score >= AlphaBeta.MATE_SCORE - SearchStack.MAX_PLY){
+            return score - ply;
+        }
+        if (score <= -AlphaBeta.MATE_SCORE + SearchStack.MAX_PLY){
+            return score + ply;
+        }
+        return score;
+    }
+
+    public static int getDepth(final long entry){
+        return (int) ((entry >>> DEPTH_SHIFT) & MAX_DEPTH);
+    }
+
+    public static int getBound(final long entry){
+        return (int) ((entry >>> BOUND_SHIFT) & ((1 << BOUND_BITS) - 1));
+    }
+
+    private static int getAge(final long entry){
+        return (int) ((entry >>> AGE_SHIFT) & AGE_MASK);
+    }
+
+    private static int toStoredScore(final int score, final int ply){
+        if (score >= AlphaBeta.MATE_SCORE - SearchStack.MAX_PLY){
+            return score + ply;
+        }
+        if (score <= -AlphaBeta.MATE_SCORE + SearchStack.MAX_PLY){
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static long pack(final int move, final int score, final int depth, final int bound, final int age){
+        return (move & ((1L << MOVE_BITS) - 1)) |
+               ((score & ((1L << SCORE_BITS) - 1)) << SCORE_SHIFT) |
+               ((long) depth << DEPTH_SHIFT) |
+               ((long) bound << BOUND_SHIFT) |
+               ((long) age << AGE_SHIFT);
+    }
+
+    private int bucketIndex(final long hash){
+        return ((int) hash & this.bucketMask) * BUCKET_SIZE;
+    }
+}
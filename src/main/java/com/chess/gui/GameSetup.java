@@ -3,6 +3,7 @@ package com.chess.gui;
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
 import com.chess.engine.player.Player;
+import com.chess.engine.player.ai.SearchParameters;
 import com.chess.gui.Table.PlayerType;
 
 import javax.swing.*;
@@ -15,6 +16,8 @@ class GameSetup extends JDialog {
     private PlayerType whitePlayerType;
     private PlayerType blackPlayerType;
     private JSpinner searchDepthSpinner;
+    private JSpinner searchTimeSpinner;
+    private JSpinner searchThreadsSpinner;
 
     private static final String HUMAN_TEXT = "Human";
     private static final String COMPUTER_TEXT = "Computer";
@@ -48,6 +51,11 @@ class GameSetup extends JDialog {
 
         myPanel.add(new JLabel("Search"));
         this.searchDepthSpinner = addLabeledSpinner(myPanel, "Search Depth", new SpinnerNumberModel(6, 0, Integer.MAX_VALUE, 1));
+        // 0 searches to the full depth however long it takes
+        this.searchTimeSpinner = addLabeledSpinner(myPanel, "Time Per Move (ms)", new SpinnerNumberModel(5000, 0, Integer.MAX_VALUE, 500));
+        // one search thread per core by default
+        this.searchThreadsSpinner = addLabeledSpinner(myPanel, "Search Threads",
+                new SpinnerNumberModel(Runtime.getRuntime().availableProcessors(), 1, SearchParameters.MAX_THREADS, 1));
 
         final JButton cancelButton = new JButton("Cancel");
         final JButton okButton = new JButton("OK");
@@ -57,6 +65,7 @@ class GameSetup extends JDialog {
                 whitePlayerType = whiteComputerButton.isSelected() ? PlayerType.COMPUTER : PlayerType.HUMAN;
                 blackPlayerType = blackComputerButton.isSelected() ? PlayerType.COMPUTER : PlayerType.HUMAN;
                 GameSetup.this.setVisible(false);
+                Table.get().resetAIStrategy();
                 // set board to standard board
                 Table.get().chessBoard = Board.createStandardBoard();
                 if (blackPlayerType == PlayerType.HUMAN && whitePlayerType == PlayerType.COMPUTER) {
@@ -116,4 +125,12 @@ class GameSetup extends JDialog {
     int getSearchDepth() {
         return (Integer)this.searchDepthSpinner.getValue();
     }
+
+    int getSearchTime() {
+        return (Integer)this.searchTimeSpinner.getValue();
+    }
+
+    int getSearchThreads() {
+        return (Integer)this.searchThreadsSpinner.getValue();
+    }
 }
@@ -7,19 +7,15 @@ import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Move.MoveFactory;
-import com.chess.engine.board.Move.PawnMove;
 import com.chess.engine.board.Move.PawnPromotion;
 import com.chess.engine.board.Tile;
-import com.chess.engine.pieces.Bishop;
-import com.chess.engine.pieces.Knight;
 import com.chess.engine.pieces.Pawn;
 import com.chess.engine.pieces.Piece;
-import com.chess.engine.pieces.Queen;
-import com.chess.engine.pieces.Rook;
+import com.chess.engine.pieces.PieceUtils;
 import com.chess.engine.player.MoveTransition;
-import com.chess.engine.player.Player;
-import com.chess.engine.player.ai.MiniMax;
+import com.chess.engine.player.ai.AlphaBeta;
 import com.chess.engine.player.ai.MoveStrategy;
+import com.chess.engine.player.ai.SearchParameters;
 
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -63,6 +59,8 @@ public class Table extends Observable{
     Color lightTileColor = Color.decode("#FFFACD");
     Color darkTileColor = Color.decode("#593E1A");
     private Move computerMove;
+    // one strategy for the game, so its search threads and transposition table carry over from move to move
+    private AlphaBeta aiStrategy;
 
     private static final Table INSTANCE = new Table();
 
@@ -197,7 +195,7 @@ public class Table extends Observable{
             if (Table.get().getGameSetup().isAIPlayer(Table.get().getGameBoard().currentPlayer()) &&
             !Table.get().getGameBoard().currentPlayer().isInCheckMate() &&
             !Table.get().getGameBoard().currentPlayer().isInStaleMate()){
-                final AIThinkTank thinkTank = new AIThinkTank(Table.get().getGameSetup().getSearchDepth());
+                final AIThinkTank thinkTank = new AIThinkTank(Table.get().getAIStrategy());
                 thinkTank.execute();
             }
 
@@ -269,11 +267,32 @@ public class Table extends Observable{
         return this.chessBoard;
     }
 
+    // the alpha-beta search, deepening until the depth or the time per move is reached, on every search thread
+    private MoveStrategy getAIStrategy() {
+        if (this.aiStrategy == null) {
+            final SearchParameters searchParameters = new SearchParameters.Builder()
+                    .setMaxDepth(this.gameSetup.getSearchDepth())
+                    .setTimeLimit(this.gameSetup.getSearchTime())
+                    .setThreads(this.gameSetup.getSearchThreads())
+                    .build();
+            this.aiStrategy = new AlphaBeta(searchParameters);
+        }
+        return this.aiStrategy;
+    }
+
+    // a new game, possibly with new search settings, gets a new strategy
+    void resetAIStrategy() {
+        if (this.aiStrategy != null) {
+            this.aiStrategy.close();
+            this.aiStrategy = null;
+        }
+    }
+
     private static class AIThinkTank extends SwingWorker<Move, String>{
-        private int searchDepth;
+        private final MoveStrategy moveStrategy;
 
-        private AIThinkTank(int searchDepth){
-            this.searchDepth = searchDepth;
+        private AIThinkTank(final MoveStrategy moveStrategy){
+            this.moveStrategy = moveStrategy;
         }
 
         @Override
@@ -281,9 +300,7 @@ public class Table extends Observable{
             // Start time
             long startTime = System.currentTimeMillis();
 
-            // Run the minimax algorithm
-            final MoveStrategy miniMax = new MiniMax(searchDepth);
-            final Move bestMove = miniMax.execute(Table.get().getGameBoard());
+            final Move bestMove = moveStrategy.execute(Table.get().getGameBoard());
 
             // End time
             long endTime = System.currentTimeMillis();
@@ -434,13 +451,13 @@ public class Table extends Observable{
 
         switch (choice) {
             case 0: // Knight
-                return new Knight(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), false);
+                return PieceUtils.getKnight(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate(), false);
             case 1: // Bishop
-                return new Bishop(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), false);
+                return PieceUtils.getBishop(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate(), false);
             case 2: // Rook
-                return new Rook(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), false);
+                return PieceUtils.getRook(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate(), false);
             default: // Queen
-                return new Queen(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), false);
+                return PieceUtils.getQueen(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate(), false);
         }
     }
 
@@ -568,10 +585,8 @@ public class Table extends Observable{
 
         private Collection<Move> pieceLegalMoves(Board board){
             if (humanMovedPiece != null && humanMovedPiece.getPieceAlliance() == board.currentPlayer().getAlliance()){
-                Collection<Move> legalMoves = board.currentPlayer().getLegalMoves();
-                Collection<Move> actualLegalMoves = calculateLegalMoves(legalMoves, board.currentPlayer().getOpponent().getLegalMoves());
                 Collection<Move> pieceLegalMoves = new ArrayList<>();
-                for (Move move : actualLegalMoves){
+                for (Move move : board.currentPlayer().getFullyLegalMoves()){
                     if (move.getMovedPiece().equals(humanMovedPiece)){
                         pieceLegalMoves.add(move);
                     }
@@ -581,29 +596,6 @@ public class Table extends Observable{
             return Collections.emptyList();
         }
 
-        public Collection<Move> calculateLegalMoves(Collection<Move> allLegalMoves, Collection<Move> opponentMoves) {
-            Collection<Move> actualLegalMoves = new ArrayList<>();
-        
-            for (Move move: allLegalMoves){
-                // TODO if it is a pawn promotion move add it to the list without executing (this is a bug that needs to be fixed)
-                if (move instanceof PawnMove.PawnPromotion){
-                    PawnPromotion pawnPromotion = (PawnPromotion) move;
-                    move = pawnPromotion.getDecoratedMove();
-                }
-
-                Board transitionBoard = move.execute();
-
-                Collection<Move> kingAttacks = Player.calculateAttacksOnTile(transitionBoard.currentPlayer().getOpponent().getPlayerKing().getPiecePosition(),
-                transitionBoard.currentPlayer().getLegalMoves());
-
-                if (kingAttacks.isEmpty()){
-                    actualLegalMoves.add(move);
-                } 
-            }
-
-            return actualLegalMoves;
-        }
-
         public void drawTile(Board board) {
             assignTileColor();
             assignTilePieceIcon(board);
@@ -0,0 +1,171 @@
+package com.chess.perft;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+
+/*
+ * Perft over the fork/join pool: boards and pieces are immutable so every subtree can be counted on its own thread
+ * The first splitDepth plies fork a task for every move and add up the counts, below that each task counts its subtree sequentially
+ * With a hash table the sequential subtrees share their counts, so a transposition is only walked by the first thread to finish it
+ */
+
+public class ParallelPerft {
+
+    private final int threads;
+    private final int splitDepth;
+    private final int hashTableSize;
+
+    private ParallelPerft(final Builder builder){
+        this.threads = builder.threads;
+        this.splitDepth = builder.splitDepth;
+        this.hashTableSize = builder.hashTableSize;
+    }
+
+    public int getThreads(){
+        return this.threads;
+    }
+
+    public int getSplitDepth(){
+        return this.splitDepth;
+    }
+
+    public long perft(final Board board, final int depth){
+        final PerftHashTable hashTable = this.hashTableSize > 0 ? new PerftHashTable(this.hashTableSize) : null;
+        final ForkJoinPool pool = new ForkJoinPool(this.threads);
+        try {
+            return pool.invoke(new PerftTask(board, depth, 0, hashTable));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public PerftResult run(final Board board, final int depth){
+        final long start = System.nanoTime();
+        final long nodes = perft(board, depth);
+        return new PerftResult(depth, nodes, System.nanoTime() - start);
+    }
+
+    private class PerftTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final int depth;
+        private final int ply;
+        private final PerftHashTable hashTable;
+
+        PerftTask(final Board board, final int depth, final int ply, final PerftHashTable hashTable){
+            this.board = board;
+            this.depth = depth;
+            this.ply = ply;
+            this.hashTable = hashTable;
+        }
+
+        @Override
+        protected Long compute(){
+            if (this.ply >= splitDepth || this.depth <= 1){
+                return sequentialPerft(this.board, this.depth, this.hashTable);
+            }
+            final List<PerftTask> tasks = new ArrayList<>();
+            for (final Move move : this.board.currentPlayer().getFullyLegalMoves()){
+                tasks.add(new PerftTask(move.execute(), this.depth - 1, this.ply + 1, this.hashTable));
+            }
+            long nodes = 0;
+            for (final PerftTask task : invokeAll(tasks)){
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+
+    private static long sequentialPerft(final Board board, final int depth, final PerftHashTable hashTable){
+        if (hashTable == null || depth <= 1){
+            return Perft.perft(board, depth);
+        }
+        final long stored = hashTable.probe(board.getZobristHash(), depth);
+        if (stored >= 0){
+            return stored;
+        }
+        long nodes = 0;
+        for (final Move move : board.currentPlayer().getFullyLegalMoves()){
+            nodes += sequentialPerft(move.execute(), depth - 1, hashTable);
+        }
+        hashTable.store(board.getZobristHash(), depth, nodes);
+        return nodes;
+    }
+
+    /*
+     * Runs the reference positions in parallel and checks the counts
+     * args: depth, threads, split depth and hash table size in MB (0 for none), all optional
+     */
+    public static void main(final String[] args){
+        final int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        final ParallelPerft parallelPerft = new Builder()
+                .setThreads(args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors())
+                .setSplitDepth(args.length > 2 ? Integer.parseInt(args[2]) : Builder.DEFAULT_SPLIT_DEPTH)
+                .setHashTableSize(args.length > 3 ? Integer.parseInt(args[3]) : 0)
+                .build();
+        boolean allPassed = true;
+        for (final PerftPosition position : PerftPosition.values()){
+            final int positionDepth = Math.min(depth, position.getMaxDepth());
+            final long expected = position.getExpectedNodes(positionDepth);
+            final PerftResult result = parallelPerft.run(position.createBoard(), positionDepth);
+            final boolean passed = result.getNodes() == expected;
+            allPassed &= passed;
+            System.out.println(position + " expected " + expected + (passed ? " ok" : " FAILED") + ", " + result);
+        }
+        if (!allPassed){
+            System.exit(1);
+        }
+    }
+
+    public static class Builder {
+
+        public static final int DEFAULT_SPLIT_DEPTH = 2;
+
+        private int threads;
+        private int splitDepth;
+        private int hashTableSize;
+
+        public Builder(){
+            this.threads = Runtime.getRuntime().availableProcessors();
+            this.splitDepth = DEFAULT_SPLIT_DEPTH;
+            this.hashTableSize = 0;
+        }
+
+        public Builder setThreads(final int threads){
+            if (threads < 1){
+                throw new RuntimeException("Parallel perft needs at least 1 thread, got " + threads);
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        // how many plies from the root are split into tasks
+        public Builder setSplitDepth(final int splitDepth){
+            if (splitDepth < 0){
+                throw new RuntimeException("Split depth cannot be negative, got " + splitDepth);
+            }
+            this.splitDepth = splitDepth;
+            return this;
+        }
+
+        // the shared hash table size in MB, 0 turns it off
+        public Builder setHashTableSize(final int hashTableSize){
+            if (hashTableSize < 0){
+                throw new RuntimeException("Hash table size cannot be negative, got " + hashTableSize);
+            }
+            this.hashTableSize = hashTableSize;
+            return this;
+        }
+
+        public ParallelPerft build(){
+            return new ParallelPerft(this);
+        }
+    }
+}
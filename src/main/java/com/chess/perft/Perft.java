@@ -0,0 +1,126 @@
+package com.chess.perft;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.IntMove;
+import com.chess.engine.board.IntMoveList;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.SearchBoard;
+import com.chess.pgn.FenUtilities;
+
+/*
+ * Perft counts the leaf nodes of the legal move tree to a fixed depth, the counts for the reference positions are
+ * published so a wrong count means a move generation bug, and divide splits the count by root move to find it
+ * The last ply is bulk counted, the legal moves are counted without being made
+ * Board is the immutable board the gui plays on, SearchBoard is the make/unmake board the search uses
+ */
+
+public final class Perft {
+
+    private Perft(){
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    public static long perft(final Board board, final int depth){
+        if (depth == 0){
+            return 1;
+        }
+        if (depth == 1){
+            return board.currentPlayer().getFullyLegalMoves().size();
+        }
+        long nodes = 0;
+        for (final Move move : board.currentPlayer().getFullyLegalMoves()){
+            nodes += perft(move.execute(), depth - 1);
+        }
+        return nodes;
+    }
+
+    public static long perft(final SearchBoard searchBoard, final int depth){
+        if (depth == 0){
+            return 1;
+        }
+        final IntMoveList[] moveLists = new IntMoveList[depth];
+        for (int ply = 0; ply < depth; ply++){
+            moveLists[ply] = new IntMoveList();
+        }
+        return perft(searchBoard, depth, moveLists);
+    }
+
+    private static long perft(final SearchBoard searchBoard, final int depth, final IntMoveList[] moveLists){
+        final IntMoveList moves = moveLists[depth - 1];
+        moves.clear();
+        searchBoard.generateLegalMoves(moves);
+        if (depth == 1){
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++){
+            searchBoard.makeMove(moves.get(i));
+            nodes += perft(searchBoard, depth - 1, moveLists);
+            searchBoard.unmakeMove();
+        }
+        return nodes;
+    }
+
+    // the node count under every root move, keyed by the move in coordinate notation (e2e4, a7a8q) in generation order
+    public static Map<String, Long> divide(final Board board, final int depth){
+        if (depth < 1){
+            throw new RuntimeException("Divide needs a depth of at least 1, got " + depth);
+        }
+        final Map<String, Long> counts = new LinkedHashMap<>();
+        for (final Move move : board.currentPlayer().getFullyLegalMoves()){
+            counts.put(IntMove.toString(IntMove.fromMove(move)), perft(move.execute(), depth - 1));
+        }
+        return counts;
+    }
+
+    public static PerftResult run(final Board board, final int depth){
+        final long start = System.nanoTime();
+        final long nodes = perft(board, depth);
+        return new PerftResult(depth, nodes, System.nanoTime() - start);
+    }
+
+    public static PerftResult run(final SearchBoard searchBoard, final int depth){
+        final long start = System.nanoTime();
+        final long nodes = perft(searchBoard, depth);
+        return new PerftResult(depth, nodes, System.nanoTime() - start);
+    }
+
+    /*
+     * With no arguments runs every reference position on both boards to depth 3 and checks the counts
+     * With a depth runs the reference positions to that depth (capped at the deepest published count)
+     * With a depth and a fen prints the divide of that position then the totals
+     */
+    public static void main(final String[] args){
+        final int depth = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        if (args.length > 1){
+            final Board board = FenUtilities.createGameFromFEN(args[1]);
+            long total = 0;
+            for (final Map.Entry<String, Long> entry : divide(board, depth).entrySet()){
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+                total += entry.getValue();
+            }
+            System.out.println("total: " + total);
+            System.out.println("board " + run(board, depth));
+            System.out.println("search board " + run(new SearchBoard(board), depth));
+            return;
+        }
+        boolean allPassed = true;
+        for (final PerftPosition position : PerftPosition.values()){
+            final int positionDepth = Math.min(depth, position.getMaxDepth());
+            final long expected = position.getExpectedNodes(positionDepth);
+            final PerftResult boardResult = run(position.createBoard(), positionDepth);
+            final PerftResult searchBoardResult = run(new SearchBoard(position.createBoard()), positionDepth);
+            final boolean passed = boardResult.getNodes() == expected && searchBoardResult.getNodes() == expected;
+            allPassed &= passed;
+            System.out.println(position + " expected " + expected + (passed ? " ok" : " FAILED"));
+            System.out.println("  board " + boardResult);
+            System.out.println("  search board " + searchBoardResult);
+        }
+        if (!allPassed){
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.chess.perft;
+
+/*
+ * A fixed size table of perft counts keyed by zobrist hash, so a position reached by different move orders is only counted once
+ * Each entry is two longs written without locking: the data (node count and depth) and the hash xor the data
+ * A reader only trusts an entry when the key xor the data gives back its own hash, so an entry torn by two threads writing
+ * at once is treated as a miss instead of returning another position's count
+ * Entries are always replaced, the table is only a cache
+ */
+
+public class PerftHashTable {
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int DEPTH_BITS = 8;
+    private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+
+    public PerftHashTable(final int sizeInMegabytes){
+        if (sizeInMegabytes < 1){
+            throw new RuntimeException("Perft hash table needs at least 1 MB, got " + sizeInMegabytes);
+        }
+        final long maxEntries = Math.min((long) sizeInMegabytes * 1024 * 1024 / ENTRY_BYTES, 1L << 30);
+        final int entries = Integer.highestOneBit((int) maxEntries);
+        this.keys = new long[entries];
+        this.data = new long[entries];
+        this.mask = entries - 1;
+    }
+
+    public int size(){
+        return this.keys.length;
+    }
+
+    // the node count stored for this position at this depth, or -1 if there is none
+    public long probe(final long hash, final int depth){
+        final int index = (int) hash & this.mask;
+        final long entry = this.data[index];
+        if ((this.keys[index] ^ entry) != hash || (entry & DEPTH_MASK) != depth){
+            return -1;
+        }
+        return entry >>> DEPTH_BITS;
+    }
+
+    public void store(final long hash, final int depth, final long nodes){
+        final int index = (int) hash & this.mask;
+        final long entry = (nodes << DEPTH_BITS) | depth;
+        this.data[index] = entry;
+        this.keys[index] = hash ^ entry;
+    }
+}
@@ -0,0 +1,51 @@
+package com.chess.perft;
+
+import com.chess.engine.board.Board;
+import com.chess.pgn.FenUtilities;
+
+/*
+ * The standard perft reference positions with their published node counts, the counts are indexed by depth - 1
+ * Between them they cover castling, enpassant (including the discovered check case), promotions and underpromotions, pins and checks
+ */
+
+public enum PerftPosition {
+    START("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+          20L, 400L, 8902L, 197281L, 4865609L, 119060324L),
+    KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+             48L, 2039L, 97862L, 4085603L, 193690690L),
+    POSITION_3("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+               14L, 191L, 2812L, 43238L, 674624L, 11030083L),
+    POSITION_4("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+               6L, 264L, 9467L, 422333L, 15833292L),
+    POSITION_5("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+               44L, 1486L, 62379L, 2103487L, 89941194L),
+    POSITION_6("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+               46L, 2079L, 89890L, 3894594L, 164075551L);
+
+    private final String fen;
+    private final long[] expectedNodes;
+
+    PerftPosition(final String fen, final long... expectedNodes){
+        this.fen = fen;
+        this.expectedNodes = expectedNodes;
+    }
+
+    public String getFen(){
+        return this.fen;
+    }
+
+    public Board createBoard(){
+        return FenUtilities.createGameFromFEN(this.fen);
+    }
+
+    public int getMaxDepth(){
+        return this.expectedNodes.length;
+    }
+
+    public long getExpectedNodes(final int depth){
+        if (depth < 1 || depth > getMaxDepth()){
+            throw new RuntimeException("No reference count for depth " + depth + " of " + this);
+        }
+        return this.expectedNodes[depth - 1];
+    }
+}
@@ -0,0 +1,36 @@
+package com.chess.perft;
+
+// the node count of one perft run and how long it took
+public class PerftResult {
+
+    private final int depth;
+    private final long nodes;
+    private final long elapsedNanos;
+
+    public PerftResult(final int depth, final long nodes, final long elapsedNanos){
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getDepth(){
+        return this.depth;
+    }
+
+    public long getNodes(){
+        return this.nodes;
+    }
+
+    public long getElapsedMillis(){
+        return this.elapsedNanos / 1_000_000L;
+    }
+
+    public long getNodesPerSecond(){
+        return this.elapsedNanos == 0 ? 0 : this.nodes * 1_000_000_000L / this.elapsedNanos;
+    }
+
+    @Override
+    public String toString(){
+        return "depth " + this.depth + ": " + this.nodes + " nodes in " + getElapsedMillis() + " ms (" + getNodesPerSecond() + " nps)";
+    }
+}
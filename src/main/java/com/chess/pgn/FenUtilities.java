@@ -1,15 +1,98 @@
 package com.chess.pgn;
 
+import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.pieces.PieceUtils;
 
 public class FenUtilities {
     private FenUtilities() {
         throw new RuntimeException("Not instantiable!");
     }
 
+    /* Build a board from the first four fields of a FEN string (placement, side to move, castling, enpassant)
+     * The board keeps castling rights as first move flags, so the kings and rooks named by the castling field are the only ones marked unmoved,
+     * pawns are unmoved on their starting rank, every other piece has moved
+     */
     public static Board createGameFromFEN(final String fenString) {
-        return null;
+        final String[] fenPartitions = fenString.trim().split("\\s+");
+        if (fenPartitions.length < 4) {
+            throw new RuntimeException("Invalid FEN string " + fenString);
+        }
+        final String castleText = fenPartitions[2];
+        final boolean whiteKingSide = castleText.contains("K");
+        final boolean whiteQueenSide = castleText.contains("Q");
+        final boolean blackKingSide = castleText.contains("k");
+        final boolean blackQueenSide = castleText.contains("q");
+
+        final Board.Builder builder = new Board.Builder();
+        final String[] ranks = fenPartitions[0].split("/");
+        if (ranks.length != 8) {
+            throw new RuntimeException("Invalid FEN board " + fenPartitions[0]);
+        }
+        for (int row = 0; row < 8; row++) {
+            int i = row * 8;
+            for (final char tileChar : ranks[row].toCharArray()) {
+                if (Character.isDigit(tileChar)) {
+                    i += tileChar - '0';
+                    continue;
+                }
+                final Alliance alliance = Character.isUpperCase(tileChar) ? Alliance.WHITE : Alliance.BLACK;
+                final boolean kingSide = alliance.isWhite() ? whiteKingSide : blackKingSide;
+                final boolean queenSide = alliance.isWhite() ? whiteQueenSide : blackQueenSide;
+                final int kingStart = alliance.isWhite() ? 60 : 4;
+                switch (Character.toLowerCase(tileChar)) {
+                    case 'p':
+                        builder.setPiece(PieceUtils.getPawn(alliance, i,
+                                alliance.isWhite() ? BoardUtils.SECOND_RANK[i] : BoardUtils.SEVENTH_RANK[i]));
+                        break;
+                    case 'n':
+                        builder.setPiece(PieceUtils.getKnight(alliance, i, false));
+                        break;
+                    case 'b':
+                        builder.setPiece(PieceUtils.getBishop(alliance, i, false));
+                        break;
+                    case 'r':
+                        builder.setPiece(PieceUtils.getRook(alliance, i, (kingSide && i == kingStart + 3) || (queenSide && i == kingStart - 4)));
+                        break;
+                    case 'q':
+                        builder.setPiece(PieceUtils.getQueen(alliance, i, false));
+                        break;
+                    case 'k':
+                        final boolean canCastle = i == kingStart && (kingSide || queenSide);
+                        builder.setPiece(PieceUtils.getKing(alliance, i, canCastle, false, canCastle && kingSide, canCastle && queenSide));
+                        break;
+                    default:
+                        throw new RuntimeException("Invalid FEN piece " + tileChar);
+                }
+                i++;
+            }
+        }
+
+        final Alliance moveMaker = moveMaker(fenPartitions[1]);
+        builder.setMoveMaker(moveMaker);
+        if (!fenPartitions[3].equals("-")) {
+            // the pawn that just jumped sits one square past the enpassant square, seen from the side to move
+            final int enPassantPawnPosition = BoardUtils.getCoordinateAtPosition(fenPartitions[3]) + 8 * moveMaker.getOpposite().getDirection();
+            final Piece piece = builder.getPiece(enPassantPawnPosition);
+            if (piece != null && piece.getPieceType() == PieceType.PAWN) {
+                builder.setEnPassantPawn((Pawn) piece);
+            }
+        }
+        return builder.build();
+    }
+
+    private static Alliance moveMaker(final String moveMakerString) {
+        if (moveMakerString.equals("w")) {
+            return Alliance.WHITE;
+        } else if (moveMakerString.equals("b")) {
+            return Alliance.BLACK;
+        }
+        throw new RuntimeException("Invalid FEN side to move " + moveMakerString);
     }
 
     public static String createFENFromGame(Board board){
@@ -24,18 +107,20 @@ public class FenUtilities {
         return board.currentPlayer().toString().substring(0, 1).toLowerCase();
     }
 
+    // the rights come from the unmoved kings and rooks, the same way the players decide if they can castle
     private static String calculateCastleText(Board board) {
         final StringBuilder builder = new StringBuilder();
-        if (board.whitePlayer().isKingSideCastleCapable()) {
+        final int castlingRights = board.getCastlingRights();
+        if ((castlingRights & SearchBoard.WHITE_KING_SIDE_CASTLE) != 0) {
             builder.append("K");
         }
-        if (board.whitePlayer().isQueenSideCastleCapable()) {
+        if ((castlingRights & SearchBoard.WHITE_QUEEN_SIDE_CASTLE) != 0) {
             builder.append("Q");
         }
-        if (board.blackPlayer().isKingSideCastleCapable()) {
+        if ((castlingRights & SearchBoard.BLACK_KING_SIDE_CASTLE) != 0) {
             builder.append("k");
         }
-        if (board.blackPlayer().isQueenSideCastleCapable()) {
+        if ((castlingRights & SearchBoard.BLACK_QUEEN_SIDE_CASTLE) != 0) {
             builder.append("q");
         }
         final String result = builder.toString();
@@ -43,8 +128,7 @@ public class FenUtilities {
     }
 
     private static String calculateEnPassantSquare(Board board) {
-        return board.getEnPassantPawn() == null ? "-" :
-                BoardUtils.getPositionAtCoordinate(board.getEnPassantPawn().getPiecePosition() + (8 * board.getEnPassantPawn().getPieceAlliance().getOppositeDirection()));
+        return board.getEnPassantPawn() == null ? "-" : BoardUtils.getPositionAtCoordinate(board.getEnPassantSquare());
     }
 
     private static String calculateBoardText(Board board) {
@@ -0,0 +1,276 @@
+package com.chess;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.IntMove;
+import com.chess.engine.board.IntMoveList;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.player.ai.AlphaBeta;
+import com.chess.engine.player.ai.BoardEvaluator;
+import com.chess.engine.player.ai.SearchParameters;
+import com.chess.engine.player.ai.SearchResult;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.perft.PerftPosition;
+import com.chess.pgn.FenUtilities;
+
+public class TestAlphaBeta {
+
+    private static final BoardEvaluator EVALUATOR = new StandardBoardEvaluator();
+
+    @Test
+    public void testFoolsMate() {
+        Board board = Board.createStandardBoard();
+        for (final String[] move : new String[][] {{"f2", "f3"}, {"e7", "e5"}, {"g2", "g4"}}) {
+            board = board.currentPlayer().makeMove(Move.MoveFactory.createMove(board,
+                    BoardUtils.getCoordinateAtPosition(move[0]), BoardUtils.getCoordinateAtPosition(move[1]))).getTransitionBoard();
+        }
+        final AlphaBeta alphaBeta = new AlphaBeta(4);
+        final Move bestMove = alphaBeta.execute(board);
+        assertEquals(Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition("d8"), BoardUtils.getCoordinateAtPosition("h4")), bestMove);
+        // mate on the first move
+        assertEquals(AlphaBeta.MATE_SCORE - 1, alphaBeta.getBestScore());
+    }
+
+    @Test
+    public void testScholarsMate() {
+        final Board board = FenUtilities.createGameFromFEN("r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4");
+        final AlphaBeta alphaBeta = new AlphaBeta(3);
+        final Move bestMove = alphaBeta.execute(board);
+        assertEquals("h5f7", IntMove.toString(IntMove.fromMove(bestMove)));
+        assertTrue(AlphaBeta.isMateScore(alphaBeta.getBestScore()));
+        assertEquals(AlphaBeta.MATE_SCORE - 1, alphaBeta.getBestScore());
+    }
+
+    // one ply sees only the pawn, the quiescence search sees the recapture
+    @Test
+    public void testQuiescenceSeesRecapture() {
+        final Board board = FenUtilities.createGameFromFEN("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1");
+        final AlphaBeta alphaBeta = new AlphaBeta(1);
+        final Move bestMove = alphaBeta.execute(board);
+        assertFalse("d1d5".equals(IntMove.toString(IntMove.fromMove(bestMove))));
+        assertTrue(String.valueOf(alphaBeta.getBestScore()), alphaBeta.getBestScore() > 0);
+    }
+
+    // move ordering, fail-soft scores and the principal variation must not change the score, only how many nodes it takes
+    // (without the transposition table, a deeper stored result can legitimately change the score, and without the pruning
+    // and reductions, which skip moves by an estimate)
+    @Test
+    public void testScoreMatchesPlainAlphaBeta() {
+        for (final PerftPosition position : PerftPosition.values()) {
+            final Board board = position.createBoard();
+            final AlphaBeta alphaBeta = new AlphaBeta(exactSearch().setMaxDepth(3).setHashTableSize(0).build());
+            alphaBeta.execute(board);
+            final SearchBoard searchBoard = new SearchBoard(board);
+            assertEquals(position.toString(), alphaBeta(searchBoard, 3, -AlphaBeta.INFINITY, AlphaBeta.INFINITY), alphaBeta.getBestScore());
+        }
+    }
+
+    @Test
+    public void testTranspositionTableSavesNodes() {
+        final Board board = PerftPosition.KIWIPETE.createBoard();
+        final AlphaBeta withTable = new AlphaBeta(new SearchParameters.Builder().setMaxDepth(5).build());
+        final AlphaBeta withoutTable = new AlphaBeta(new SearchParameters.Builder().setMaxDepth(5).setHashTableSize(0).build());
+        final Move withTableMove = withTable.execute(board);
+        withoutTable.execute(board);
+        assertTrue(board.currentPlayer().getFullyLegalMoves().contains(withTableMove));
+        assertTrue(withTable.getNodes() + " vs " + withoutTable.getNodes(), withTable.getNodes() < withoutTable.getNodes());
+    }
+
+    // the null windows and the aspiration window only change how much is searched
+    @Test
+    public void testPrincipalVariationSearchSavesNodes() {
+        final Board board = PerftPosition.KIWIPETE.createBoard();
+        final AlphaBeta principalVariationSearch = new AlphaBeta(exactSearch().setMaxDepth(6).build());
+        final AlphaBeta plain = new AlphaBeta(exactSearch().setMaxDepth(6).setPrincipalVariationSearch(false).setAspirationWindow(0).build());
+        principalVariationSearch.execute(board);
+        plain.execute(board);
+        assertEquals(plain.getBestScore(), principalVariationSearch.getBestScore());
+        assertTrue(principalVariationSearch.getNodes() + " vs " + plain.getNodes(), principalVariationSearch.getNodes() < plain.getNodes());
+    }
+
+    // the principal variation starts with the move played and can be played out on the board
+    @Test
+    public void testSearchResult() {
+        final Board board = PerftPosition.KIWIPETE.createBoard();
+        final AlphaBeta alphaBeta = new AlphaBeta(new SearchParameters.Builder().setMaxDepth(5).setHashTableSize(0).build());
+        final Move bestMove = alphaBeta.execute(board);
+        final SearchResult searchResult = alphaBeta.getSearchResult();
+        assertEquals(bestMove, searchResult.getBestMove());
+        assertEquals(alphaBeta.getBestScore(), searchResult.getScore());
+        assertEquals(5, searchResult.getDepth());
+        assertEquals(alphaBeta.getNodes(), searchResult.getNodes());
+        // without the transposition table no line is cut short, the quiescence search can only make it longer
+        assertTrue(searchResult.principalVariationToString(), searchResult.getPrincipalVariation().size() >= 5);
+        Board position = board;
+        for (final Move move : searchResult.getPrincipalVariation()) {
+            assertTrue(move.toString(), position.currentPlayer().getFullyLegalMoves().contains(move));
+            position = position.currentPlayer().makeMove(move).getTransitionBoard();
+        }
+        assertEquals(alphaBeta.getPrincipalVariation(), searchResult.principalVariationToString());
+    }
+
+    // the same iterations, fewer nodes, and still a sensible move
+    @Test
+    public void testNullMoveAndLateMoveReductionsSaveNodes() {
+        for (final PerftPosition position : new PerftPosition[] {PerftPosition.KIWIPETE, PerftPosition.POSITION_6}) {
+            final Board board = position.createBoard();
+            final AlphaBeta pruned = new AlphaBeta(new SearchParameters.Builder().setMaxDepth(6).build());
+            final AlphaBeta full = new AlphaBeta(new SearchParameters.Builder().setMaxDepth(6).setNullMovePruning(false)
+                                                                                .setLateMoveReductions(false).build());
+            final Move bestMove = pruned.execute(board);
+            full.execute(board);
+            assertTrue(board.currentPlayer().getFullyLegalMoves().contains(bestMove));
+            assertTrue(position + ": " + pruned.getNodes() + " vs " + full.getNodes(), pruned.getNodes() < full.getNodes());
+        }
+    }
+
+    @Test
+    public void testFrontierPruningSavesNodes() {
+        for (final PerftPosition position : new PerftPosition[] {PerftPosition.KIWIPETE, PerftPosition.POSITION_6}) {
+            final Board board = position.createBoard();
+            final AlphaBeta pruned = new AlphaBeta(new SearchParameters.Builder().setMaxDepth(6).build());
+            final AlphaBeta full = new AlphaBeta(new SearchParameters.Builder().setMaxDepth(6).setFutilityPruning(false)
+                                                                                .setReverseFutilityPruning(false).setRazoring(false).build());
+            final Move bestMove = pruned.execute(board);
+            full.execute(board);
+            assertTrue(board.currentPlayer().getFullyLegalMoves().contains(bestMove));
+            assertTrue(position + ": " + pruned.getNodes() + " vs " + full.getNodes(), pruned.getNodes() < full.getNodes());
+        }
+    }
+
+    // the helpers share the table and are stopped with the main thread, whose move is played
+    @Test
+    public void testLazySmp() {
+        final Board board = PerftPosition.KIWIPETE.createBoard();
+        // the helper threads are reused from one search to the next
+        try (final AlphaBeta alphaBeta = new AlphaBeta(new SearchParameters.Builder().setMaxDepth(6).setThreads(4).build())) {
+            for (int search = 0; search < 2; search++) {
+                final Move bestMove = alphaBeta.execute(board);
+                assertTrue(board.currentPlayer().getFullyLegalMoves().contains(bestMove));
+                assertEquals(6, alphaBeta.getCompletedDepth());
+                assertEquals(bestMove, alphaBeta.getSearchResult().getBestMove());
+                assertEquals(alphaBeta.getNodes(), alphaBeta.getSearchResult().getNodes());
+            }
+        }
+
+        try (final AlphaBeta timed = new AlphaBeta(new SearchParameters.Builder().setTimeLimit(200).setThreads(4).build())) {
+            final long start = System.currentTimeMillis();
+            final Move bestMove = timed.execute(board);
+            final long elapsed = System.currentTimeMillis() - start;
+            assertTrue("took " + elapsed + " ms", elapsed < 1000);
+            assertTrue(board.currentPlayer().getFullyLegalMoves().contains(bestMove));
+        }
+    }
+
+    @Test
+    public void testTimeLimit() {
+        final Board board = PerftPosition.KIWIPETE.createBoard();
+        final AlphaBeta alphaBeta = new AlphaBeta(new SearchParameters.Builder().setTimeLimit(200).build());
+        final long start = System.currentTimeMillis();
+        final Move bestMove = alphaBeta.execute(board);
+        final long elapsed = System.currentTimeMillis() - start;
+        assertTrue("took " + elapsed + " ms", elapsed < 1000);
+        assertTrue(alphaBeta.getCompletedDepth() >= 1 && alphaBeta.getCompletedDepth() < SearchParameters.DEFAULT_MAX_DEPTH);
+        assertTrue(board.currentPlayer().getFullyLegalMoves().contains(bestMove));
+    }
+
+    // the search stops on the node budget and plays the best move of the last finished iteration
+    @Test
+    public void testNodeLimit() {
+        final Board board = PerftPosition.POSITION_6.createBoard();
+        final AlphaBeta limited = new AlphaBeta(new SearchParameters.Builder().setNodeLimit(20000).build());
+        final Move bestMove = limited.execute(board);
+        assertEquals(20000, limited.getNodes());
+        assertTrue(limited.getCompletedDepth() >= 1);
+
+        final AlphaBeta fixedDepth = new AlphaBeta(limited.getCompletedDepth());
+        assertEquals(fixedDepth.execute(board), bestMove);
+        assertEquals(fixedDepth.getBestScore(), limited.getBestScore());
+    }
+
+    // only the techniques that never change the score
+    private static SearchParameters.Builder exactSearch() {
+        return new SearchParameters.Builder().setDeltaPruning(false).setNullMovePruning(false).setLateMoveReductions(false)
+                                             .setFutilityPruning(false).setReverseFutilityPruning(false).setRazoring(false);
+    }
+
+    // a fail-hard alpha-beta in generation order, exact at the root with the full window
+    // (the quiescence search has too many lines to search them all)
+    private static int alphaBeta(final SearchBoard searchBoard, final int depth, int alpha, final int beta) {
+        if (depth == 0) {
+            return quiescence(searchBoard, alpha, beta);
+        }
+        final IntMoveList moves = new IntMoveList();
+        searchBoard.generateLegalMoves(moves);
+        if (moves.isEmpty()) {
+            return clamp(searchBoard.isInCheck() ? -AlphaBeta.MATE_SCORE + searchBoard.getPly() : AlphaBeta.DRAW_SCORE, alpha, beta);
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            searchBoard.makeMove(moves.get(i));
+            final int score = -alphaBeta(searchBoard, depth - 1, -beta, -alpha);
+            searchBoard.unmakeMove();
+            if (score >= beta) {
+                return beta;
+            }
+            alpha = Math.max(alpha, score);
+        }
+        return alpha;
+    }
+
+    // stand pat or the best capture, every evasion when in check
+    private static int quiescence(final SearchBoard searchBoard, int alpha, final int beta) {
+        if (searchBoard.getPly() == SearchBoard.MAX_PLY - 1) {
+            return clamp(evaluate(searchBoard), alpha, beta);
+        }
+        final IntMoveList moves = new IntMoveList();
+        if (searchBoard.isInCheck()) {
+            searchBoard.generateLegalMoves(moves);
+            if (moves.isEmpty()) {
+                return clamp(-AlphaBeta.MATE_SCORE + searchBoard.getPly(), alpha, beta);
+            }
+        } else {
+            final int standPat = evaluate(searchBoard);
+            if (standPat >= beta) {
+                return beta;
+            }
+            alpha = Math.max(alpha, standPat);
+            searchBoard.generateCaptures(moves);
+            sortByVictim(moves);
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            searchBoard.makeMove(moves.get(i));
+            final int score = -quiescence(searchBoard, -beta, -alpha);
+            searchBoard.unmakeMove();
+            if (score >= beta) {
+                return beta;
+            }
+            alpha = Math.max(alpha, score);
+        }
+        return alpha;
+    }
+
+    private static int clamp(final int score, final int alpha, final int beta) {
+        return Math.max(alpha, Math.min(beta, score));
+    }
+
+    // insertion sort, the most valuable victim first
+    private static void sortByVictim(final IntMoveList moves) {
+        for (int i = 1; i < moves.size(); i++) {
+            for (int j = i; j > 0 && IntMove.getCapturedType(moves.get(j)) > IntMove.getCapturedType(moves.get(j - 1)); j--) {
+                moves.swap(j, j - 1);
+            }
+        }
+    }
+
+    private static int evaluate(final SearchBoard searchBoard) {
+        final int score = EVALUATOR.evaluate(searchBoard, 0);
+        return searchBoard.getSideToMove().isWhite() ? score : -score;
+    }
+}
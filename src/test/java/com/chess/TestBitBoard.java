@@ -0,0 +1,125 @@
+package com.chess;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.LeaperAttacks;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.SlidingAttacks;
+import com.chess.engine.pieces.Bishop;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Knight;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.pieces.Rook;
+
+public class TestBitBoard {
+
+    @Test
+    public void testStandardBoardBitBoards() {
+        final Board board = Board.createStandardBoard();
+        final BitBoard bitBoard = board.getBitBoard();
+
+        assertEquals(32, BitBoard.popCount(bitBoard.getOccupied()));
+        assertEquals(16, BitBoard.popCount(bitBoard.getAlliancePieces(Alliance.WHITE)));
+        assertEquals(16, BitBoard.popCount(bitBoard.getAlliancePieces(Alliance.BLACK)));
+        assertEquals(8, bitBoard.getPieceCount(Alliance.WHITE, PieceType.PAWN));
+        assertEquals(2, bitBoard.getPieceCount(Alliance.BLACK, PieceType.ROOK));
+        assertEquals(BitBoard.squareMask(BoardUtils.getCoordinateAtPosition("e1")), bitBoard.getPieces(Alliance.WHITE, PieceType.KING));
+        assertEquals(BitBoard.squareMask(BoardUtils.getCoordinateAtPosition("d8")), bitBoard.getPieces(Alliance.BLACK, PieceType.QUEEN));
+        assertTrue(bitBoard.isOccupied(BoardUtils.getCoordinateAtPosition("a2")));
+        assertFalse(bitBoard.isOccupied(BoardUtils.getCoordinateAtPosition("e4")));
+    }
+
+    @Test
+    public void testBitBoardsMatchTiles() {
+        final Board board = Board.createStandardBoard();
+        final BitBoard bitBoard = board.getBitBoard();
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final Piece piece = board.getPiece(i);
+            assertEquals(piece != null, bitBoard.isOccupied(i));
+            if (piece != null) {
+                assertTrue((bitBoard.getPieces(piece.getPieceAlliance(), piece.getPieceType()) & BitBoard.squareMask(i)) != 0);
+            }
+        }
+    }
+
+    @Test
+    public void testSlidingAttacksOnEmptyBoard() {
+        final int d4 = BoardUtils.getCoordinateAtPosition("d4");
+        assertEquals(14, BitBoard.popCount(SlidingAttacks.rookAttacks(d4, 0L)));
+        assertEquals(13, BitBoard.popCount(SlidingAttacks.bishopAttacks(d4, 0L)));
+        assertEquals(27, BitBoard.popCount(SlidingAttacks.queenAttacks(d4, 0L)));
+        assertEquals(7, BitBoard.popCount(SlidingAttacks.bishopAttacks(BoardUtils.getCoordinateAtPosition("a8"), 0L)));
+    }
+
+    @Test
+    public void testSlidingAttacksStopAtBlockers() {
+        final int d4 = BoardUtils.getCoordinateAtPosition("d4");
+        final long blockers = BitBoard.squareMask(BoardUtils.getCoordinateAtPosition("d6")) |
+                BitBoard.squareMask(BoardUtils.getCoordinateAtPosition("f4")) |
+                BitBoard.squareMask(BoardUtils.getCoordinateAtPosition("b6"));
+        final long rookAttacks = SlidingAttacks.rookAttacks(d4, blockers);
+        // d5, d6 up, d3 d2 d1 down, e4 f4 right, c4 b4 a4 left
+        assertEquals(10, BitBoard.popCount(rookAttacks));
+        assertTrue((rookAttacks & BitBoard.squareMask(BoardUtils.getCoordinateAtPosition("d6"))) != 0);
+        assertFalse((rookAttacks & BitBoard.squareMask(BoardUtils.getCoordinateAtPosition("d7"))) != 0);
+        final long bishopAttacks = SlidingAttacks.bishopAttacks(d4, blockers);
+        assertTrue((bishopAttacks & BitBoard.squareMask(BoardUtils.getCoordinateAtPosition("b6"))) != 0);
+        assertFalse((bishopAttacks & BitBoard.squareMask(BoardUtils.getCoordinateAtPosition("a7"))) != 0);
+    }
+
+    @Test
+    public void testLeaperAttacks() {
+        assertEquals(2, BitBoard.popCount(LeaperAttacks.knightAttacks(BoardUtils.getCoordinateAtPosition("a1"))));
+        assertEquals(8, BitBoard.popCount(LeaperAttacks.knightAttacks(BoardUtils.getCoordinateAtPosition("e4"))));
+        assertEquals(3, BitBoard.popCount(LeaperAttacks.kingAttacks(BoardUtils.getCoordinateAtPosition("h8"))));
+        assertEquals(8, BitBoard.popCount(LeaperAttacks.kingAttacks(BoardUtils.getCoordinateAtPosition("d5"))));
+        assertEquals(BitBoard.squareMask(BoardUtils.getCoordinateAtPosition("b3")),
+                LeaperAttacks.pawnAttacks(Alliance.WHITE, BoardUtils.getCoordinateAtPosition("a2")));
+        assertEquals(BitBoard.squareMask(BoardUtils.getCoordinateAtPosition("g6")),
+                LeaperAttacks.pawnAttacks(Alliance.BLACK, BoardUtils.getCoordinateAtPosition("h7")));
+    }
+
+    @Test
+    public void testSquareAttackedOnStandardBoard() {
+        final BitBoard bitBoard = Board.createStandardBoard().getBitBoard();
+        assertTrue(bitBoard.isSquareAttacked(BoardUtils.getCoordinateAtPosition("f3"), Alliance.WHITE));
+        assertTrue(bitBoard.isSquareAttacked(BoardUtils.getCoordinateAtPosition("c6"), Alliance.BLACK));
+        assertFalse(bitBoard.isSquareAttacked(BoardUtils.getCoordinateAtPosition("e4"), Alliance.WHITE));
+        assertFalse(bitBoard.isSquareAttacked(BoardUtils.getCoordinateAtPosition("e5"), Alliance.BLACK));
+        // the queen on d1 cannot see past its own pawn on d2
+        assertFalse(bitBoard.isSquareAttacked(BoardUtils.getCoordinateAtPosition("d4"), Alliance.WHITE));
+    }
+
+    @Test
+    public void testPinnedPiecesAndCheckers() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(new King(BoardUtils.getCoordinateAtPosition("a8"), Alliance.BLACK, false, false));
+        builder.setPiece(new Rook(BoardUtils.getCoordinateAtPosition("e8"), Alliance.BLACK));
+        builder.setPiece(new Bishop(BoardUtils.getCoordinateAtPosition("b4"), Alliance.BLACK));
+        builder.setPiece(new Knight(BoardUtils.getCoordinateAtPosition("e2"), Alliance.WHITE));
+        builder.setPiece(new King(BoardUtils.getCoordinateAtPosition("e1"), Alliance.WHITE, false, false));
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+        final BitBoard bitBoard = board.getBitBoard();
+
+        assertEquals(BitBoard.squareMask(BoardUtils.getCoordinateAtPosition("e2")), bitBoard.getPinnedPieces(Alliance.WHITE));
+        assertEquals(BitBoard.squareMask(BoardUtils.getCoordinateAtPosition("b4")), bitBoard.getCheckers(Alliance.WHITE));
+        assertEquals(BitBoard.squareMask(BoardUtils.getCoordinateAtPosition("c3")) | BitBoard.squareMask(BoardUtils.getCoordinateAtPosition("d2")),
+                SlidingAttacks.between(BoardUtils.getCoordinateAtPosition("e1"), BoardUtils.getCoordinateAtPosition("b4")));
+
+        // the knight could block on c3 but it is pinned, so only the king can move
+        for (final Move move : board.currentPlayer().getFullyLegalMoves()) {
+            assertEquals(PieceType.KING, move.getMovedPiece().getPieceType());
+        }
+        assertFalse(board.currentPlayer().getFullyLegalMoves().isEmpty());
+    }
+}
@@ -3,15 +3,23 @@ package com.chess;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.PawnPromotion;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.Player;
 import com.chess.engine.player.ai.MiniMax;
 import com.chess.engine.player.ai.MoveStrategy;
+import com.chess.pgn.FenUtilities;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static junit.framework.TestCase.assertFalse;
 import static org.junit.Assert.assertNotNull;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.Test;
 
 public class TestBoard {
@@ -32,4 +40,28 @@ public class TestBoard {
         final Move bestMove = Move.MoveFactory.createMove(t3.getTransitionBoard(), BoardUtils.getCoordinateAtPosition("d8"), BoardUtils.getCoordinateAtPosition("h4"));
         assertEquals(aiMove, bestMove);
     }   
+
+    // every legal move of both players is found again from its squares (and its promotion piece)
+    @Test
+    public void testCreateMoveFindsEveryLegalMove(){
+        final Random random = new Random(5);
+        Board board = FenUtilities.createGameFromFEN("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1");
+        for (int i = 0; i < 60; i++){
+            for (final Player player : new Player[]{board.whitePlayer(), board.blackPlayer()}){
+                for (final Move move : player.getLegalMoves()){
+                    final PieceType promotionType = move instanceof PawnPromotion ? ((PawnPromotion) move).getPromotedPiece().getPieceType() : null;
+                    assertEquals(move, Move.MoveFactory.createMove(board, move.getCurrentCoordinate(), move.getDestinationCoordinate(), promotionType));
+                    if (promotionType == null || promotionType == PieceType.QUEEN){
+                        assertEquals(move, Move.MoveFactory.createMove(board, move.getCurrentCoordinate(), move.getDestinationCoordinate()));
+                    }
+                }
+            }
+            assertEquals(Move.NULL_MOVE, Move.MoveFactory.createMove(board, 27, 27));
+            final List<Move> moves = new ArrayList<>(board.currentPlayer().getFullyLegalMoves());
+            if (moves.isEmpty()){
+                break;
+            }
+            board = moves.get(random.nextInt(moves.size())).execute();
+        }
+    }
 }
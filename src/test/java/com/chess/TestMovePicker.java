@@ -0,0 +1,92 @@
+package com.chess;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.chess.engine.board.IntMove;
+import com.chess.engine.board.IntMoveList;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.player.ai.HistoryTable;
+import com.chess.engine.player.ai.MovePicker;
+import com.chess.perft.PerftPosition;
+
+public class TestMovePicker {
+
+    @Test
+    public void testPicksEveryLegalMoveOnceInStageOrder() {
+        final PieceType[] pieceTypes = PieceType.values();
+        for (final PerftPosition position : PerftPosition.values()) {
+            final SearchBoard searchBoard = new SearchBoard(position.createBoard());
+            final IntMoveList legalMoves = new IntMoveList();
+            searchBoard.generateLegalMoves(legalMoves);
+            final IntMoveList quietMoves = new IntMoveList();
+            searchBoard.generateQuietMoves(quietMoves);
+
+            final int hashMove = legalMoves.get(legalMoves.size() - 1);
+            final int killer = quietMoves.isEmpty() ? IntMove.NO_MOVE : quietMoves.get(quietMoves.size() / 2);
+            // a quiet move that is not legal here must be skipped
+            final int illegalKiller = IntMove.create(0, 63, PieceType.KNIGHT.ordinal(), IntMove.NO_PIECE_TYPE, IntMove.NO_PIECE_TYPE, 0);
+            final MovePicker movePicker = new MovePicker();
+            movePicker.init(searchBoard, hashMove, illegalKiller, killer);
+
+            final Set<Integer> picked = new HashSet<>();
+            int lastCaptureValue = Integer.MAX_VALUE;
+            boolean inQuietMoves = false;
+            int count = 0;
+            for (int move = movePicker.nextMove(); move != IntMove.NO_MOVE; move = movePicker.nextMove()) {
+                assertTrue(IntMove.toString(move), picked.add(move));
+                assertTrue(legalMoves.contains(move));
+                if (count == 0) {
+                    assertEquals(hashMove, move);
+                } else if (IntMove.isCapture(move) || IntMove.isPromotion(move)) {
+                    assertTrue(position.toString(), !inQuietMoves);
+                    // most valuable victim first, then least valuable attacker, the king attacking for free
+                    final PieceType attacker = pieceTypes[IntMove.getMovedType(move)];
+                    final int value = (IntMove.isCapture(move) ? pieceTypes[IntMove.getCapturedType(move)].getPieceValue() * 100 -
+                                                                 (attacker == PieceType.KING ? 0 : attacker.getPieceValue()) : 0) +
+                            (IntMove.isPromotion(move) ? (pieceTypes[IntMove.getPromotionType(move)].getPieceValue() - 100) * 100 : 0);
+                    assertTrue(value <= lastCaptureValue);
+                    lastCaptureValue = value;
+                } else {
+                    if (!inQuietMoves && killer != IntMove.NO_MOVE && killer != hashMove) {
+                        assertEquals(killer, move);
+                    }
+                    inQuietMoves = true;
+                }
+                count++;
+            }
+            assertEquals(legalMoves.size(), count);
+        }
+    }
+
+    @Test
+    public void testQuietMovesFollowHistory() {
+        final SearchBoard searchBoard = new SearchBoard(PerftPosition.KIWIPETE.createBoard());
+        final IntMoveList quietMoves = new IntMoveList();
+        searchBoard.generateQuietMoves(quietMoves);
+        final HistoryTable historyTable = new HistoryTable();
+        final int first = quietMoves.get(quietMoves.size() - 1);
+        final int second = quietMoves.get(0);
+        historyTable.update(first, 4);
+        historyTable.update(second, 2);
+        historyTable.update(second, 1);
+
+        final MovePicker movePicker = new MovePicker(historyTable);
+        movePicker.init(searchBoard, IntMove.NO_MOVE, IntMove.NO_MOVE, IntMove.NO_MOVE);
+        int move = movePicker.nextMove();
+        while (IntMove.isCapture(move) || IntMove.isPromotion(move)) {
+            move = movePicker.nextMove();
+        }
+        assertEquals(IntMove.toString(first), first, move);
+        assertEquals(second, movePicker.nextMove());
+        assertEquals(16, historyTable.getScore(first));
+        historyTable.age();
+        assertEquals(8, historyTable.getScore(first));
+    }
+}
@@ -0,0 +1,80 @@
+package com.chess;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.SearchBoard;
+import com.chess.perft.ParallelPerft;
+import com.chess.perft.Perft;
+import com.chess.perft.PerftHashTable;
+import com.chess.perft.PerftPosition;
+import com.chess.pgn.FenUtilities;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+public class TestPerft {
+
+    // the board and the search board against the published counts, deep enough to reach castling, enpassant and promotions
+    @Test
+    public void testReferencePositions(){
+        for (final PerftPosition position : PerftPosition.values()){
+            assertEquals(position + " board", position.getExpectedNodes(3), Perft.perft(position.createBoard(), 3));
+            assertEquals(position + " search board", position.getExpectedNodes(4),
+                         Perft.perft(new SearchBoard(position.createBoard()), 4));
+        }
+    }
+
+    @Test
+    public void testParallelPerft(){
+        final ParallelPerft withoutHash = new ParallelPerft.Builder().setThreads(4).setSplitDepth(2).build();
+        final ParallelPerft withHash = new ParallelPerft.Builder().setThreads(4).setSplitDepth(1).setHashTableSize(4).build();
+        for (final PerftPosition position : PerftPosition.values()){
+            assertEquals(position + " no hash", position.getExpectedNodes(3), withoutHash.perft(position.createBoard(), 3));
+            assertEquals(position + " hash", position.getExpectedNodes(4), withHash.perft(position.createBoard(), 4));
+        }
+    }
+
+    @Test
+    public void testPerftHashTable(){
+        final PerftHashTable hashTable = new PerftHashTable(1);
+        assertEquals(1 << 16, hashTable.size());
+        final long hash = 0x123456789ABCDEFL;
+        assertEquals(-1, hashTable.probe(hash, 3));
+        hashTable.store(hash, 3, 97862);
+        assertEquals(97862, hashTable.probe(hash, 3));
+        assertEquals(-1, hashTable.probe(hash, 4));
+        // same slot, different position
+        assertEquals(-1, hashTable.probe(hash ^ (1L << 40), 3));
+    }
+
+    @Test
+    public void testDivideAddsUpToPerft(){
+        final Board board = PerftPosition.KIWIPETE.createBoard();
+        final Map<String, Long> divide = Perft.divide(board, 2);
+        assertEquals(48, divide.size());
+        assertEquals(Long.valueOf(43), divide.get("e1g1"));
+        long total = 0;
+        for (final long nodes : divide.values()){
+            total += nodes;
+        }
+        assertEquals(PerftPosition.KIWIPETE.getExpectedNodes(2), total);
+    }
+
+    // placement, side to move, castling and enpassant survive a round trip through the fen parser
+    @Test
+    public void testFenRoundTrip(){
+        for (final PerftPosition position : PerftPosition.values()){
+            final String fen = FenUtilities.createFENFromGame(position.createBoard());
+            assertEquals(position.toString(), fenPosition(position.getFen()), fenPosition(fen));
+        }
+        final String enPassant = "rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3";
+        assertEquals(fenPosition(enPassant), fenPosition(FenUtilities.createFENFromGame(FenUtilities.createGameFromFEN(enPassant))));
+    }
+
+    private static String fenPosition(final String fen){
+        final String[] fields = fen.split(" ");
+        return fields[0] + " " + fields[1] + " " + fields[2] + " " + fields[3];
+    }
+}
@@ -6,6 +6,7 @@ import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
 import com.chess.engine.player.MoveTransition;
 import com.chess.engine.pieces.*;
+import com.chess.engine.pieces.Piece.PieceType;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -286,4 +287,41 @@ public class TestPieces {
     }
     
 
-}
\ No newline at end of file
+
+    @Test
+    public void testMovedPiecesAreShared() {
+        final Board board = Board.createStandardBoard();
+        final Move move = Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition("g1"),
+                BoardUtils.getCoordinateAtPosition("f3"));
+        final Board first = board.currentPlayer().makeMove(move).getTransitionBoard();
+        final Board second = board.currentPlayer().makeMove(move).getTransitionBoard();
+        final int f3 = BoardUtils.getCoordinateAtPosition("f3");
+        // both boards hold the same knight and the same tile, and it is the one the cache hands out
+        assertTrue(first.getPiece(f3) == second.getPiece(f3));
+        assertTrue(first.getTile(f3) == second.getTile(f3));
+        assertTrue(first.getPiece(f3) == PieceUtils.getKnight(Alliance.WHITE, f3, false));
+        assertTrue(board.getPiece(BoardUtils.getCoordinateAtPosition("e2")) == first.getPiece(BoardUtils.getCoordinateAtPosition("e2")));
+        assertFalse(first.getPiece(f3).isFirstMove());
+    }
+
+    @Test
+    public void testNoCastleThroughPawnAttack() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(new King(4, Alliance.BLACK, false, false));
+        builder.setPiece(new Pawn(BoardUtils.getCoordinateAtPosition("h2"), Alliance.BLACK, false));
+        builder.setPiece(new Rook(63, Alliance.WHITE));
+        builder.setPiece(new King(60, Alliance.WHITE, true, true));
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+
+        // the pawn on h2 has no move to g1, but it still attacks it
+        final int g1 = BoardUtils.getCoordinateAtPosition("g1");
+        assertTrue(board.whitePlayer().isTileAttacked(g1));
+        assertEquals(1, board.whitePlayer().calculateAttacksOnTile(g1).size());
+        assertEquals(PieceType.PAWN, board.whitePlayer().calculateAttacksOnTile(g1).iterator().next().getPieceType());
+        assertFalse(board.whitePlayer().isTileAttacked(BoardUtils.getCoordinateAtPosition("f1")));
+        for (final Move move : board.whitePlayer().getLegalMoves()) {
+            assertFalse(move.isCastlingMove());
+        }
+    }
+}
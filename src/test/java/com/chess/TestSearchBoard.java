@@ -0,0 +1,414 @@
+package com.chess;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.IntMove;
+import com.chess.engine.board.IntMoveList;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.Zobrist;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.pieces.Rook;
+import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.ai.BoardEvaluator;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.perft.PerftPosition;
+import com.chess.pgn.FenUtilities;
+
+public class TestSearchBoard {
+
+    @Test
+    public void testMakeUnmakeMatchesBoard() {
+        final Random random = new Random(42);
+        for (int game = 0; game < 10; game++) {
+            Board board = Board.createStandardBoard();
+            final SearchBoard searchBoard = new SearchBoard(board);
+            final String startPosition = searchBoard.toString();
+            int movesMade = 0;
+            for (int i = 0; i < 60; i++) {
+                final List<MoveTransition> transitions = new ArrayList<>();
+                for (final Move move : board.currentPlayer().getLegalMoves()) {
+                    final MoveTransition transition = board.currentPlayer().makeMove(move);
+                    if (transition.getMoveStatus().isDone()) {
+                        transitions.add(transition);
+                    }
+                }
+                if (transitions.isEmpty()) {
+                    break;
+                }
+                final MoveTransition transition = transitions.get(random.nextInt(transitions.size()));
+                searchBoard.makeMove(transition.getTransitionMove());
+                movesMade++;
+                board = transition.getTransitionBoard();
+                assertEquals(board.toString(), searchBoard.toString());
+                assertEquals(board.currentPlayer().getAlliance(), searchBoard.getSideToMove());
+            }
+            for (int i = 0; i < movesMade; i++) {
+                searchBoard.unmakeMove();
+            }
+            assertEquals(startPosition, searchBoard.toString());
+            assertEquals(Alliance.WHITE, searchBoard.getSideToMove());
+            assertEquals(0, searchBoard.getPly());
+        }
+    }
+
+    @Test
+    public void testCastleMakeUnmake() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(new King(4, Alliance.BLACK, true, true));
+        builder.setPiece(new Rook(0, Alliance.BLACK));
+        builder.setPiece(new Rook(7, Alliance.BLACK));
+        builder.setPiece(new King(60, Alliance.WHITE, true, true));
+        builder.setPiece(new Rook(56, Alliance.WHITE));
+        builder.setPiece(new Rook(63, Alliance.WHITE));
+        builder.setMoveMaker(Alliance.WHITE);
+        final Board board = builder.build();
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final int allRights = SearchBoard.WHITE_KING_SIDE_CASTLE | SearchBoard.WHITE_QUEEN_SIDE_CASTLE |
+                SearchBoard.BLACK_KING_SIDE_CASTLE | SearchBoard.BLACK_QUEEN_SIDE_CASTLE;
+        assertEquals(allRights, searchBoard.getCastlingRights());
+
+        final Move castle = Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition("e1"), BoardUtils.getCoordinateAtPosition("g1"));
+        assertTrue(castle.isCastlingMove());
+        searchBoard.makeMove(castle);
+        assertEquals(castle.execute().toString(), searchBoard.toString());
+        assertEquals(SearchBoard.BLACK_KING_SIDE_CASTLE | SearchBoard.BLACK_QUEEN_SIDE_CASTLE, searchBoard.getCastlingRights());
+
+        searchBoard.unmakeMove();
+        assertEquals(board.toString(), searchBoard.toString());
+        assertEquals(allRights, searchBoard.getCastlingRights());
+    }
+
+    @Test
+    public void testEnPassantMakeUnmake() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(new King(4, Alliance.BLACK, false, false));
+        builder.setPiece(new Pawn(BoardUtils.getCoordinateAtPosition("d7"), Alliance.BLACK));
+        builder.setPiece(new Pawn(BoardUtils.getCoordinateAtPosition("e5"), Alliance.WHITE, false));
+        builder.setPiece(new King(60, Alliance.WHITE, false, false));
+        builder.setMoveMaker(Alliance.BLACK);
+        final Board board = builder.build();
+        final SearchBoard searchBoard = new SearchBoard(board);
+
+        final MoveTransition jump = board.currentPlayer().makeMove(Move.MoveFactory.createMove(board,
+                BoardUtils.getCoordinateAtPosition("d7"), BoardUtils.getCoordinateAtPosition("d5")));
+        searchBoard.makeMove(jump.getTransitionMove());
+        assertEquals(BoardUtils.getCoordinateAtPosition("d6"), searchBoard.getEnPassantSquare());
+
+        final Board jumpBoard = jump.getTransitionBoard();
+        final Move enPassant = Move.MoveFactory.createMove(jumpBoard, BoardUtils.getCoordinateAtPosition("e5"), BoardUtils.getCoordinateAtPosition("d6"));
+        assertTrue(enPassant instanceof Move.PawnEnPassantAttackMove);
+        searchBoard.makeMove(enPassant);
+        assertEquals(enPassant.execute().toString(), searchBoard.toString());
+
+        searchBoard.unmakeMove();
+        assertEquals(jumpBoard.toString(), searchBoard.toString());
+        searchBoard.unmakeMove();
+        assertEquals(board.toString(), searchBoard.toString());
+        assertEquals(SearchBoard.NO_SQUARE, searchBoard.getEnPassantSquare());
+    }
+
+    @Test
+    public void testIntMoveEncoding() {
+        final int move = IntMove.create(BoardUtils.getCoordinateAtPosition("b7"), BoardUtils.getCoordinateAtPosition("a8"),
+                PieceType.PAWN.ordinal(), PieceType.ROOK.ordinal(), PieceType.KNIGHT.ordinal(), 0);
+        assertEquals(BoardUtils.getCoordinateAtPosition("b7"), IntMove.getFrom(move));
+        assertEquals(BoardUtils.getCoordinateAtPosition("a8"), IntMove.getTo(move));
+        assertEquals(PieceType.PAWN.ordinal(), IntMove.getMovedType(move));
+        assertEquals(PieceType.ROOK.ordinal(), IntMove.getCapturedType(move));
+        assertEquals(PieceType.KNIGHT.ordinal(), IntMove.getPromotionType(move));
+        assertTrue(IntMove.isCapture(move));
+        assertTrue(IntMove.isPromotion(move));
+        assertEquals("b7a8n", IntMove.toString(move));
+
+        final int quiet = IntMove.create(BoardUtils.getCoordinateAtPosition("g1"), BoardUtils.getCoordinateAtPosition("f3"),
+                PieceType.KNIGHT.ordinal(), IntMove.NO_PIECE_TYPE, IntMove.NO_PIECE_TYPE, 0);
+        assertEquals(IntMove.NO_PIECE_TYPE, IntMove.getCapturedType(quiet));
+        assertEquals(IntMove.NO_PIECE_TYPE, IntMove.getPromotionType(quiet));
+        assertTrue(!IntMove.isCapture(quiet) && !IntMove.isPromotion(quiet) && !IntMove.isCastle(quiet));
+
+        final Board board = Board.createStandardBoard();
+        final Move boardMove = IntMove.toMove(board, quiet);
+        assertEquals(Move.MoveFactory.createMove(board, IntMove.getFrom(quiet), IntMove.getTo(quiet)), boardMove);
+        assertEquals(quiet, IntMove.fromMove(boardMove));
+    }
+
+    @Test
+    public void testLegalMovesMatchBoard() {
+        final Random random = new Random(7);
+        for (int game = 0; game < 10; game++) {
+            Board board = Board.createStandardBoard();
+            for (int i = 0; i < 80; i++) {
+                final List<MoveTransition> transitions = new ArrayList<>();
+                final Set<String> boardMoves = new HashSet<>();
+                for (final Move move : board.currentPlayer().getLegalMoves()) {
+                    final MoveTransition transition = board.currentPlayer().makeMove(move);
+                    if (transition.getMoveStatus().isDone()) {
+                        transitions.add(transition);
+                        boardMoves.add(IntMove.toString(IntMove.fromMove(move)));
+                    }
+                }
+
+                final SearchBoard searchBoard = new SearchBoard(board);
+                final IntMoveList legalMoves = new IntMoveList();
+                searchBoard.generateLegalMoves(legalMoves);
+                final Set<String> searchMoves = new HashSet<>();
+                for (int j = 0; j < legalMoves.size(); j++) {
+                    searchMoves.add(IntMove.toString(legalMoves.get(j)));
+                }
+                assertEquals(board.toString(), boardMoves, searchMoves);
+
+                if (transitions.isEmpty()) {
+                    break;
+                }
+                board = transitions.get(random.nextInt(transitions.size())).getTransitionBoard();
+            }
+        }
+    }
+
+    @Test
+    public void testLegalMovesMatchMakeUnmake() {
+        final Random random = new Random(11);
+        for (int game = 0; game < 10; game++) {
+            final SearchBoard searchBoard = new SearchBoard(Board.createStandardBoard());
+            for (int i = 0; i < 100; i++) {
+                final IntMoveList pseudoLegalMoves = new IntMoveList();
+                searchBoard.generatePseudoLegalMoves(pseudoLegalMoves);
+                final Set<Integer> expected = new HashSet<>();
+                for (int j = 0; j < pseudoLegalMoves.size(); j++) {
+                    final int move = pseudoLegalMoves.get(j);
+                    searchBoard.makeMove(move);
+                    if (!searchBoard.getBitBoard().isSquareAttacked(searchBoard.getKingSquare(searchBoard.getSideToMove().getOpposite()),
+                            searchBoard.getSideToMove())) {
+                        expected.add(move);
+                    }
+                    searchBoard.unmakeMove();
+                }
+
+                final IntMoveList legalMoves = new IntMoveList();
+                searchBoard.generateLegalMoves(legalMoves);
+                final Set<Integer> actual = new HashSet<>();
+                for (int j = 0; j < legalMoves.size(); j++) {
+                    actual.add(legalMoves.get(j));
+                }
+                assertEquals(searchBoard.toString(), expected, actual);
+
+                if (legalMoves.isEmpty()) {
+                    break;
+                }
+                searchBoard.makeMove(legalMoves.get(random.nextInt(legalMoves.size())));
+            }
+        }
+    }
+
+    @Test
+    public void testEnPassantDiscoveredCheck() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(new King(BoardUtils.getCoordinateAtPosition("e8"), Alliance.BLACK, false, false));
+        builder.setPiece(new Pawn(BoardUtils.getCoordinateAtPosition("c7"), Alliance.BLACK));
+        builder.setPiece(new Rook(BoardUtils.getCoordinateAtPosition("h5"), Alliance.BLACK, false));
+        builder.setPiece(new Pawn(BoardUtils.getCoordinateAtPosition("b5"), Alliance.WHITE, false));
+        builder.setPiece(new King(BoardUtils.getCoordinateAtPosition("a5"), Alliance.WHITE, false, false));
+        builder.setMoveMaker(Alliance.BLACK);
+        final Board board = builder.build();
+        final Board jumpBoard = board.currentPlayer().makeMove(Move.MoveFactory.createMove(board,
+                BoardUtils.getCoordinateAtPosition("c7"), BoardUtils.getCoordinateAtPosition("c5"))).getTransitionBoard();
+
+        // taking enpassant removes both pawns from the fifth rank and exposes the king to the rook
+        final Move enPassant = Move.MoveFactory.createMove(jumpBoard, BoardUtils.getCoordinateAtPosition("b5"), BoardUtils.getCoordinateAtPosition("c6"));
+        assertTrue(enPassant instanceof Move.PawnEnPassantAttackMove);
+        assertEquals(0L, jumpBoard.getBitBoard().getPinnedPieces(Alliance.WHITE));
+        assertTrue(!jumpBoard.currentPlayer().getFullyLegalMoves().contains(enPassant));
+        assertTrue(!jumpBoard.currentPlayer().makeMove(enPassant).getMoveStatus().isDone());
+
+        final SearchBoard searchBoard = new SearchBoard(jumpBoard);
+        final IntMoveList legalMoves = new IntMoveList();
+        searchBoard.generateLegalMoves(legalMoves);
+        assertTrue(!legalMoves.contains(IntMove.fromMove(enPassant)));
+    }
+
+    @Test
+    public void testZobristHashMatchesBoard() {
+        final Random random = new Random(3);
+        for (int game = 0; game < 10; game++) {
+            Board board = Board.createStandardBoard();
+            final SearchBoard searchBoard = new SearchBoard(board);
+            final long startHash = searchBoard.getZobristHash();
+            int movesMade = 0;
+            for (int i = 0; i < 60; i++) {
+                final List<Move> moves = new ArrayList<>(board.currentPlayer().getFullyLegalMoves());
+                if (moves.isEmpty()) {
+                    break;
+                }
+                final Move move = moves.get(random.nextInt(moves.size()));
+                searchBoard.makeMove(move);
+                movesMade++;
+                board = board.currentPlayer().makeMove(move).getTransitionBoard();
+                assertEquals(Zobrist.calculateHash(board), board.getZobristHash());
+                assertEquals(board.getZobristHash(), searchBoard.getZobristHash());
+            }
+            for (int i = 0; i < movesMade; i++) {
+                searchBoard.unmakeMove();
+            }
+            assertEquals(startHash, searchBoard.getZobristHash());
+        }
+    }
+
+    // passing hands the move over, clears the en passant square, and is undone exactly
+    @Test
+    public void testNullMove() {
+        final SearchBoard searchBoard = new SearchBoard(FenUtilities.createGameFromFEN("rnbqkbnr/pppp1ppp/8/8/3Pp3/8/PPP1PPPP/RNBQKBNR b KQkq d3 0 2"));
+        final Board passed = FenUtilities.createGameFromFEN("rnbqkbnr/pppp1ppp/8/8/3Pp3/8/PPP1PPPP/RNBQKBNR w KQkq - 0 2");
+        final long hash = searchBoard.getZobristHash();
+        searchBoard.makeNullMove();
+        assertEquals(Alliance.WHITE, searchBoard.getSideToMove());
+        assertEquals(SearchBoard.NO_SQUARE, searchBoard.getEnPassantSquare());
+        assertEquals(passed.getZobristHash(), searchBoard.getZobristHash());
+        assertEquals(IntMove.NO_MOVE, searchBoard.getLastMove());
+        final IntMoveList moves = new IntMoveList();
+        searchBoard.generateLegalMoves(moves);
+        assertEquals(passed.currentPlayer().getFullyLegalMoves().size(), moves.size());
+        searchBoard.unmakeNullMove();
+        assertEquals(Alliance.BLACK, searchBoard.getSideToMove());
+        assertEquals(BoardUtils.getCoordinateAtPosition("d3"), searchBoard.getEnPassantSquare());
+        assertEquals(hash, searchBoard.getZobristHash());
+
+        assertTrue(searchBoard.hasNonPawnMaterial(Alliance.WHITE));
+        final SearchBoard pawnEnding = new SearchBoard(FenUtilities.createGameFromFEN("8/4k3/4p3/8/8/4P3/3NK3/8 w - - 0 1"));
+        assertTrue(pawnEnding.hasNonPawnMaterial(Alliance.WHITE));
+        assertTrue(!pawnEnding.hasNonPawnMaterial(Alliance.BLACK));
+    }
+
+    @Test
+    public void testTranspositionsAreEqual() {
+        final Board board = Board.createStandardBoard();
+        Board transposed = board;
+        for (final String[] move : new String[][] {{"g1", "f3"}, {"g8", "f6"}, {"f3", "g1"}, {"f6", "g8"}}) {
+            transposed = transposed.currentPlayer().makeMove(Move.MoveFactory.createMove(transposed,
+                    BoardUtils.getCoordinateAtPosition(move[0]), BoardUtils.getCoordinateAtPosition(move[1]))).getTransitionBoard();
+        }
+        assertEquals(board.getZobristHash(), transposed.getZobristHash());
+        assertEquals(board, transposed);
+        assertEquals(board.hashCode(), transposed.hashCode());
+
+        final Board knightOut = board.currentPlayer().makeMove(Move.MoveFactory.createMove(board,
+                BoardUtils.getCoordinateAtPosition("g1"), BoardUtils.getCoordinateAtPosition("f3"))).getTransitionBoard();
+        assertTrue(board.getZobristHash() != knightOut.getZobristHash());
+        assertTrue(!board.equals(knightOut));
+    }
+
+    @Test
+    public void testCapturesAndQuietMovesSplitLegalMoves() {
+        for (final PerftPosition position : PerftPosition.values()) {
+            final SearchBoard searchBoard = new SearchBoard(position.createBoard());
+            final IntMoveList rootMoves = new IntMoveList();
+            searchBoard.generateLegalMoves(rootMoves);
+            for (int i = -1; i < rootMoves.size(); i++) {
+                if (i >= 0) {
+                    searchBoard.makeMove(rootMoves.get(i));
+                }
+                final IntMoveList legalMoves = new IntMoveList();
+                searchBoard.generateLegalMoves(legalMoves);
+                final IntMoveList stagedMoves = new IntMoveList();
+                searchBoard.generateCaptures(stagedMoves);
+                for (int j = 0; j < stagedMoves.size(); j++) {
+                    assertTrue(IntMove.isCapture(stagedMoves.get(j)) || IntMove.isPromotion(stagedMoves.get(j)));
+                }
+                final int captureCount = stagedMoves.size();
+                searchBoard.generateQuietMoves(stagedMoves);
+                for (int j = captureCount; j < stagedMoves.size(); j++) {
+                    assertTrue(!IntMove.isCapture(stagedMoves.get(j)) && !IntMove.isPromotion(stagedMoves.get(j)));
+                }
+                assertEquals(searchBoard.toString(), toSet(legalMoves), toSet(stagedMoves));
+                assertEquals(legalMoves.size(), stagedMoves.size());
+                if (i >= 0) {
+                    searchBoard.unmakeMove();
+                }
+            }
+        }
+    }
+
+    // moves from the parent position (as hash moves and killers are) are only legal in the child if it generates them
+    @Test
+    public void testIsLegalMoveMatchesGeneratedMoves() {
+        for (final PerftPosition position : PerftPosition.values()) {
+            final SearchBoard searchBoard = new SearchBoard(position.createBoard());
+            final IntMoveList rootMoves = new IntMoveList();
+            searchBoard.generateLegalMoves(rootMoves);
+            for (int i = 0; i < rootMoves.size(); i++) {
+                searchBoard.makeMove(rootMoves.get(i));
+                final IntMoveList replies = new IntMoveList();
+                searchBoard.generateLegalMoves(replies);
+                final Set<Integer> legal = toSet(replies);
+                // each candidate once, the replies' replies repeat many of the same moves
+                final IntMoveList generated = new IntMoveList();
+                searchBoard.generatePseudoLegalMoves(generated);
+                final Set<Integer> candidates = toSet(generated);
+                candidates.addAll(toSet(rootMoves));
+                for (int j = 0; j < replies.size(); j++) {
+                    searchBoard.makeMove(replies.get(j));
+                    generated.clear();
+                    searchBoard.generateLegalMoves(generated);
+                    candidates.addAll(toSet(generated));
+                    searchBoard.unmakeMove();
+                }
+                for (final int move : candidates) {
+                    assertEquals(searchBoard + IntMove.toString(move), legal.contains(move), searchBoard.isLegalMove(move));
+                }
+                searchBoard.unmakeMove();
+            }
+        }
+    }
+
+    // a search board following a game with makeMove (and reused for the next game through setPosition) scores every position
+    // the same as the Board
+    @Test
+    public void testEvaluationMatchesBoard() {
+        final BoardEvaluator evaluator = new StandardBoardEvaluator();
+        final Random random = new Random(3);
+        SearchBoard searchBoard = null;
+        for (int game = 0; game < 10; game++) {
+            // kiwipete castles early, so the castle bonus gets checked too
+            Board board = game % 2 == 0 ? Board.createStandardBoard() : PerftPosition.KIWIPETE.createBoard();
+            if (searchBoard == null) {
+                searchBoard = new SearchBoard(board);
+            } else {
+                searchBoard.setPosition(board);
+            }
+            for (int i = 0; i < 120; i++) {
+                assertEquals(board.getZobristHash(), searchBoard.getZobristHash());
+                assertEquals(board.toString(), evaluator.evaluate(board, 2), evaluator.evaluate(searchBoard, 2));
+
+                final List<Move> legalMoves = new ArrayList<>(board.currentPlayer().getFullyLegalMoves());
+                if (legalMoves.isEmpty()) {
+                    break;
+                }
+                final Move move = legalMoves.get(random.nextInt(legalMoves.size()));
+                searchBoard.makeMove(move);
+                board = move.execute();
+            }
+        }
+    }
+
+    private static Set<Integer> toSet(final IntMoveList moves) {
+        final Set<Integer> set = new HashSet<>();
+        for (int i = 0; i < moves.size(); i++) {
+            set.add(moves.get(i));
+        }
+        return set;
+    }
+}
@@ -0,0 +1,108 @@
+package com.chess;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.chess.engine.board.IntMove;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.player.ai.AlphaBeta;
+import com.chess.engine.player.ai.TranspositionTable;
+
+public class TestTranspositionTable {
+
+    private static final int MOVE = IntMove.create(52, 36, PieceType.PAWN.ordinal(), IntMove.NO_PIECE_TYPE, IntMove.NO_PIECE_TYPE,
+                                                   IntMove.PAWN_JUMP_FLAG);
+    private static final int OTHER_MOVE = IntMove.create(62, 45, PieceType.KNIGHT.ordinal(), IntMove.NO_PIECE_TYPE, IntMove.NO_PIECE_TYPE, 0);
+
+    @Test
+    public void testStoreAndProbe() {
+        final TranspositionTable table = new TranspositionTable(1);
+        assertEquals(1 << 16, table.size());
+        final long hash = 0x1234_5678_9ABC_DEF0L;
+        assertEquals(0L, table.probe(hash));
+
+        table.store(hash, 7, -1234, TranspositionTable.UPPER_BOUND, MOVE, 3);
+        final long entry = table.probe(hash);
+        assertEquals(MOVE, TranspositionTable.getMove(entry));
+        assertEquals(-1234, TranspositionTable.getScore(entry, 3));
+        assertEquals(7, TranspositionTable.getDepth(entry));
+        assertEquals(TranspositionTable.UPPER_BOUND, TranspositionTable.getBound(entry));
+        assertEquals(0L, table.probe(hash ^ (1L << 40)));
+    }
+
+    // a mate found 5 plies below a node at ply 2 is still a mate 5 plies below the same position reached at ply 6
+    @Test
+    public void testMateScoresAreRelativeToTheNode() {
+        final TranspositionTable table = new TranspositionTable(1);
+        table.store(42L, 5, AlphaBeta.MATE_SCORE - 7, TranspositionTable.EXACT, MOVE, 2);
+        assertEquals(AlphaBeta.MATE_SCORE - 11, TranspositionTable.getScore(table.probe(42L), 6));
+        table.store(43L, 5, -AlphaBeta.MATE_SCORE + 7, TranspositionTable.EXACT, MOVE, 2);
+        assertEquals(-AlphaBeta.MATE_SCORE + 11, TranspositionTable.getScore(table.probe(43L), 6));
+    }
+
+    @Test
+    public void testReplacement() {
+        final TranspositionTable table = new TranspositionTable(1);
+        // three positions in the same bucket
+        final long deep = 5L;
+        final long shallow = deep + (1L << 32);
+        final long newer = deep + (2L << 32);
+        table.store(deep, 8, 10, TranspositionTable.EXACT, MOVE, 0);
+        table.store(shallow, 3, 20, TranspositionTable.EXACT, MOVE, 0);
+        // the deep entry keeps its slot, the shallow one goes to the always replace slot
+        assertEquals(8, TranspositionTable.getDepth(table.probe(deep)));
+        assertEquals(3, TranspositionTable.getDepth(table.probe(shallow)));
+        table.store(newer, 2, 30, TranspositionTable.EXACT, MOVE, 0);
+        assertEquals(8, TranspositionTable.getDepth(table.probe(deep)));
+        assertEquals(0L, table.probe(shallow));
+        assertEquals(2, TranspositionTable.getDepth(table.probe(newer)));
+
+        // an entry from an earlier search gives way to a shallower one
+        table.newSearch();
+        table.store(shallow, 1, 40, TranspositionTable.EXACT, OTHER_MOVE, 0);
+        assertEquals(0L, table.probe(deep));
+        assertEquals(OTHER_MOVE, TranspositionTable.getMove(table.probe(shallow)));
+
+        // failing low again keeps the move already known
+        table.store(shallow, 4, -50, TranspositionTable.UPPER_BOUND, IntMove.NO_MOVE, 0);
+        assertEquals(OTHER_MOVE, TranspositionTable.getMove(table.probe(shallow)));
+        assertEquals(-50, TranspositionTable.getScore(table.probe(shallow), 0));
+    }
+
+    // threads hammering the same few buckets: a probe either misses or finds exactly what was stored for its own hash
+    @Test
+    public void testConcurrentStoresNeverMixEntries() throws Exception {
+        final TranspositionTable table = new TranspositionTable(1);
+        final AtomicInteger mixed = new AtomicInteger();
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int seed = t;
+            threads[t] = new Thread(() -> {
+                final Random random = new Random(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    // 64 positions in 2 buckets
+                    final int position = random.nextInt(64);
+                    final long hash = (position & 1) + ((long) position << 32);
+                    if (random.nextBoolean()) {
+                        table.store(hash, position + 1, position * 10, TranspositionTable.EXACT, MOVE, 0);
+                    } else {
+                        final long entry = table.probe(hash);
+                        if (entry != 0 && (TranspositionTable.getDepth(entry) != position + 1 ||
+                                           TranspositionTable.getScore(entry, 0) != position * 10)) {
+                            mixed.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, mixed.get());
+    }
+}